@@ -0,0 +1,199 @@
+package com.linus.excel.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.enums.Gender;
+import com.linus.excel.po.User;
+import com.linus.excel.util.ColumnConfigurationParserForJson;
+import com.linus.excel.validation.ColumnConstraint;
+import com.linus.excel.validation.FractionColumnConstraint;
+import com.linus.excel.validation.LengthColumnConstraint;
+import com.linus.excel.validation.RangeColumnConstraint;
+import com.linus.excel.validation.UniqueColumnConstraint;
+
+/**
+ * Synthetic data for benchmarks. Values are generated from row number only, so each run writes and reads the same data.
+ * 
+ * @author lyan2
+ */
+public final class BenchmarkData {
+	
+	private static final ObjectMapper mapper = new ObjectMapper();
+	
+	private static final long BASE_TIME = 1577836800000L; // 2020-01-01 UTC
+	private static final long DAY = 24 * 60 * 60 * 1000L;
+	
+	private BenchmarkData() {
+	}
+	
+	/**
+	 * Load column configurations from a JSON file of src/test/resources/config, then repeat them horizontally to make 
+	 * wider sheets.
+	 * @param name e.g. "fields.json"
+	 * @param copies How many times columns are repeated. Keys are made unique by suffixing column index, writers name pick 
+	 * lists by key.
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<ColumnConfiguration> loadConfigs(String name, int copies) throws IOException {
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		Set<String> keys = new HashSet<String>();
+		
+		for (int copy = 0; copy < copies; copy++) {
+			InputStream in = BenchmarkData.class.getResourceAsStream("/config/" + name);
+			if (in == null) throw new IOException("Column configuration " + name + " is not found.");
+			
+			ArrayNode array;
+			try {
+				array = (ArrayNode) mapper.readTree(in);
+			} finally {
+				in.close();
+			}
+			
+			List<ColumnConfiguration> copied = ColumnConfigurationParserForJson.getColumnConfigurations(array, Locale.CHINA);
+			for (ColumnConfiguration config : copied) {
+				config.setColumnIndex(configs.size());
+				if (!keys.add(config.getKey())) {
+					config.setKey(config.getKey() + "_" + config.getColumnIndex());
+					keys.add(config.getKey());
+				}
+				configs.add(config);
+			}
+		}
+		
+		return configs;
+	}
+	
+	/**
+	 * Generate rows as maps, keys are column keys.
+	 * @param configs
+	 * @param rows
+	 * @return
+	 */
+	public static List<Map<String, Object>> maps(List<ColumnConfiguration> configs, int rows) {
+		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>(rows);
+		for (int i = 0; i < rows; i++) {
+			Map<String, Object> map = new HashMap<String, Object>(configs.size() * 2);
+			for (ColumnConfiguration config : configs) {
+				map.put(config.getKey(), value(config, i));
+			}
+			list.add(map);
+		}
+		return list;
+	}
+	
+	/**
+	 * Generate rows as lists, values are ordered by column index.
+	 * @param configs
+	 * @param rows
+	 * @return
+	 */
+	public static List<List<Object>> lists(List<ColumnConfiguration> configs, int rows) {
+		List<List<Object>> list = new ArrayList<List<Object>>(rows);
+		for (int i = 0; i < rows; i++) {
+			List<Object> row = new ArrayList<Object>(configs.size());
+			for (ColumnConfiguration config : configs) {
+				row.add(value(config, i));
+			}
+			list.add(row);
+		}
+		return list;
+	}
+	
+	/**
+	 * Generate users, every property which has a header is set.
+	 * @param rows
+	 * @return
+	 */
+	public static List<User> users(int rows) {
+		List<User> list = new ArrayList<User>(rows);
+		for (int i = 0; i < rows; i++) {
+			User user = new User();
+			user.setFirstName("First" + i);
+			user.setLastName("Last" + (i % 1000));
+			user.setAge(18 + i % 60);
+			user.setGender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+			user.setEmail("user" + i + "@example.com");
+			user.setBalance(BigDecimal.valueOf(i * 37L % 100000, 2));
+			user.setFree(i % 3 == 0 ? "yes" : "no");
+			user.setStudent(i % 5 == 0);
+			user.setBirthday(new Date(BASE_TIME - (i % 20000) * DAY));
+			user.setTime(new Time(BASE_TIME + (i % 86400) * 1000L));
+			user.setCompleted((i % 100) / 100d);
+			Calendar end = Calendar.getInstance();
+			end.setTimeInMillis(BASE_TIME + i * 60000L);
+			user.setEnd(end);
+			list.add(user);
+		}
+		return list;
+	}
+	
+	/**
+	 * Generate a valid value of column for row, string values are unique per row.
+	 */
+	private static Object value(ColumnConfiguration config, int row) {
+		String rawType = config.getRawType();
+		if (rawType == null || "attachment".equals(rawType)) return null;
+		
+		switch (rawType.toUpperCase()) {
+		case "INTEGER":
+			return row % 100;
+		case "DOUBLE":
+			FractionColumnConstraint fraction = constraint(config, FractionColumnConstraint.class);
+			return fraction == null || fraction.getPrecision() >= 2 ? (row % 10000) / 100d : (double) (row % 10000);
+		case "PERCENT":
+			return (row % 100) / 100d;
+		case "DATE":
+		case "DATETIME":
+			return new Date(BASE_TIME + (row % 3650) * DAY);
+		case "TIME":
+			return new Time(BASE_TIME + (row % 86400) * 1000L);
+		case "PICKLIST":
+		case "COMBOBOX":
+			RangeColumnConstraint range = constraint(config, RangeColumnConstraint.class);
+			return range == null || range.getPickList().length == 0 ? null : range.getPickList()[row % range.getPickList().length];
+		case "MULTIPICKLIST":
+			return "1;2";
+		default:
+			String text = config.getKey() + " " + row;
+			LengthColumnConstraint length = constraint(config, LengthColumnConstraint.class);
+			return length != null && text.length() > length.getLength() ? text.substring(text.length() - length.getLength()) : text;
+		}
+	}
+	
+	private static <C extends ColumnConstraint> C constraint(ColumnConfiguration config, Class<C> type) {
+		for (ColumnConstraint constraint : config.getConstraints()) {
+			if (type.isInstance(constraint)) return type.cast(constraint);
+		}
+		return null;
+	}
+	
+	/**
+	 * Unique constraints remember values they have seen, clear them before a sheet is read or validated again.
+	 * @param configs
+	 */
+	public static void clearUniqueValues(List<ColumnConfiguration> configs) {
+		for (ColumnConfiguration config : configs) {
+			for (ColumnConstraint constraint : config.getConstraints()) {
+				if (constraint instanceof UniqueColumnConstraint) {
+					((UniqueColumnConstraint) constraint).clearAll();
+				}
+			}
+		}
+	}
+}
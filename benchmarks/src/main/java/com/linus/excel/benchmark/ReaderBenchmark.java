@@ -0,0 +1,135 @@
+package com.linus.excel.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.InvalidRowError;
+import com.linus.excel.ListSheetReader;
+import com.linus.excel.MapSheetReader;
+import com.linus.excel.MapSheetWriter;
+import com.linus.excel.PojoSheetReader;
+import com.linus.excel.PojoSheetWriter;
+import com.linus.excel.StreamingSheetReader;
+import com.linus.excel.po.User;
+import com.linus.excel.util.ColumnConfigurationParserForJson;
+
+/**
+ * Read sheets written by the writers. Workbooks are written and loaded once per trial, so in memory readers are measured
+ * without parsing the file; the streaming reader parses the file on each call.
+ * 
+ * @author lyan2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReaderBenchmark {
+	
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+	
+	@Param({"fields.json", "fields2.json"})
+	public String config;
+	
+	@Param({"1", "4"})
+	public int columnCopies;
+	
+	private List<ColumnConfiguration> configs;
+	private List<ColumnConfiguration> userConfigs;
+	
+	private File mapFile;
+	private File userFile;
+	private XSSFWorkbook mapBook;
+	private XSSFWorkbook userBook;
+	
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		configs = BenchmarkData.loadConfigs(config, columnCopies);
+		userConfigs = ColumnConfigurationParserForJson.getColumnConfigurations(User.class);
+		
+		SXSSFWorkbook book = AbstractSheetWriter.createStreamingWorkbook();
+		new MapSheetWriter(book, configs).writeSheet(book, book.createSheet("Detail"), BenchmarkData.maps(configs, rows), true);
+		mapFile = save(book, "maps");
+		
+		book = AbstractSheetWriter.createStreamingWorkbook();
+		new PojoSheetWriter<User>(book, userConfigs).writeSheet(book, book.createSheet("Detail"), BenchmarkData.users(rows), true);
+		userFile = save(book, "users");
+		
+		mapBook = new XSSFWorkbook(mapFile);
+		userBook = new XSSFWorkbook(userFile);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		mapBook.close();
+		userBook.close();
+		mapFile.delete();
+		userFile.delete();
+	}
+	
+	@Benchmark
+	public List<List<Object>> readLists() {
+		return new ListSheetReader().readSheet(mapSheet(), 1);
+	}
+	
+	@Benchmark
+	public List<Map<String, Object>> readMaps() {
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		return new MapSheetReader().readSheet(mapSheet(), configs, 1, violations);
+	}
+	
+	@Benchmark
+	public List<User> readPojos() {
+		Set<InvalidRowError<User>> violations = new HashSet<InvalidRowError<User>>();
+		return new PojoSheetReader<User>().readSheet(userBook.getSheetAt(0), User.class, 1, violations);
+	}
+	
+	@Benchmark
+	public List<Map<String, Object>> readMapsStreaming() throws IOException {
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		return new StreamingSheetReader<Map<String, Object>>(new MapSheetReader()).readSheet(mapFile, 0, configs, 1, violations);
+	}
+	
+	private Sheet mapSheet() {
+		return mapBook.getSheetAt(0);
+	}
+	
+	private static File save(SXSSFWorkbook book, String name) throws IOException {
+		File file = File.createTempFile("benchmark-" + name, ".xlsx");
+		try (OutputStream out = new FileOutputStream(file)) {
+			book.write(out);
+		} finally {
+			book.dispose();
+			book.close();
+		}
+		return file;
+	}
+}
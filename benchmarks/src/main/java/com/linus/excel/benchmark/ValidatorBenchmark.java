@@ -0,0 +1,84 @@
+package com.linus.excel.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.validation.ListValidator;
+import com.linus.excel.validation.MapValidator;
+
+/**
+ * Validate generated rows without reading cells, so only constraint checks are measured.
+ * 
+ * @author lyan2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ValidatorBenchmark {
+	
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+	
+	@Param({"fields.json", "fields2.json", "configuration.json"})
+	public String config;
+	
+	@Param({"1", "4"})
+	public int columnCopies;
+	
+	private List<ColumnConfiguration> configs;
+	private List<Map<String, Object>> maps;
+	private List<List<Object>> lists;
+	
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		configs = BenchmarkData.loadConfigs(config, columnCopies);
+		maps = BenchmarkData.maps(configs, rows);
+		lists = BenchmarkData.lists(configs, rows);
+	}
+	
+	/**
+	 * @return Number of invalid rows.
+	 */
+	@Benchmark
+	public int validateMaps() {
+		BenchmarkData.clearUniqueValues(configs);
+		MapValidator validator = new MapValidator();
+		int invalid = 0;
+		for (int i = 0; i < maps.size(); i++) {
+			if (!validator.validate(i, maps.get(i), configs).isEmpty()) invalid++;
+		}
+		return invalid;
+	}
+	
+	/**
+	 * @return Number of invalid rows.
+	 */
+	@Benchmark
+	public int validateLists() {
+		BenchmarkData.clearUniqueValues(configs);
+		ListValidator validator = new ListValidator();
+		int invalid = 0;
+		for (int i = 0; i < lists.size(); i++) {
+			if (!validator.validate(i, lists.get(i), configs).isEmpty()) invalid++;
+		}
+		return invalid;
+	}
+}
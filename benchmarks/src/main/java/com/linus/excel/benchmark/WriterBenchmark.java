@@ -0,0 +1,126 @@
+package com.linus.excel.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.MapSheetWriter;
+import com.linus.excel.PojoSheetWriter;
+import com.linus.excel.po.User;
+import com.linus.excel.util.ColumnConfigurationParserForJson;
+
+/**
+ * Write a sheet and serialize the workbook. Non streaming workbooks of 1M rows need a large heap, e.g. -jvmArgs -Xmx8g.
+ * 
+ * @author lyan2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WriterBenchmark {
+	
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+	
+	@Param({"fields.json", "fields2.json"})
+	public String config;
+	
+	/**
+	 * Columns of config are repeated to make wider sheets.
+	 */
+	@Param({"1", "4"})
+	public int columnCopies;
+	
+	@Param({"true", "false"})
+	public boolean streaming;
+	
+	private List<ColumnConfiguration> configs;
+	private List<Map<String, Object>> maps;
+	private List<ColumnConfiguration> userConfigs;
+	private List<User> users;
+	
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		configs = BenchmarkData.loadConfigs(config, columnCopies);
+		maps = BenchmarkData.maps(configs, rows);
+		userConfigs = ColumnConfigurationParserForJson.getColumnConfigurations(User.class);
+		users = BenchmarkData.users(rows);
+	}
+	
+	@Benchmark
+	public long writeMaps() throws IOException {
+		Workbook book = createWorkbook();
+		Sheet sheet = book.createSheet("Detail");
+		new MapSheetWriter(book, configs).writeSheet(book, sheet, maps, true);
+		return close(book);
+	}
+	
+	@Benchmark
+	public long writePojos() throws IOException {
+		Workbook book = createWorkbook();
+		Sheet sheet = book.createSheet("Detail");
+		new PojoSheetWriter<User>(book, userConfigs).writeSheet(book, sheet, users, true);
+		return close(book);
+	}
+	
+	private Workbook createWorkbook() {
+		return streaming ? AbstractSheetWriter.createStreamingWorkbook() : new XSSFWorkbook();
+	}
+	
+	/**
+	 * @return Size of the serialized workbook.
+	 */
+	private static long close(Workbook book) throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		try {
+			book.write(out);
+		} finally {
+			if (book instanceof SXSSFWorkbook) {
+				((SXSSFWorkbook) book).dispose();
+			}
+			book.close();
+		}
+		return out.count;
+	}
+	
+	/**
+	 * Discard written bytes, only count them.
+	 */
+	static final class CountingOutputStream extends OutputStream {
+		long count;
+		
+		@Override
+		public void write(int b) {
+			count++;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.linus.date;
+
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Parse date text as {@link DateUtil#parseDate(String)} does, without exceptions. Text of canonical shapes, i.e.
+ * yyyy-MM-dd HH:mm:ss, yyyy-MM-dd, yyyy/MM/dd and yyyy.MM.dd with zero padded fields, is recognized by its length and
+ * separators and parsed directly by java.time. Other text is parsed by the date formats of DateUtil in the same order,
+ * with {@link ParsePosition} instead of exceptions.
+ * <p>
+ * A parser learns the format of a column: after text of a column is parsed by a date format, later text is tried with it
+ * first when no format before it can match, e.g. yyyy/M/d. The result is the same whatever is learned, so a parser can
+ * be shared by threads, the learned format is only a hint kept in a volatile field.
+ *
+ * @author lyan2
+ */
+public class DateParser {
+
+	private static final Logger logger = Logger.getLogger(DateParser.class.getName());
+
+	private static final int UNKNOWN = -1;
+	private static final int CANONICAL = 0;
+	private static final int ISO_DATETIME = 1;
+	private static final int ISO_DATE = 2;
+	private static final int SLASH_DATE = 3;
+	private static final int DOT_DATE = 4;
+
+	/**
+	 * Format which parsed the last text.
+	 */
+	private volatile int learned = UNKNOWN;
+
+	/**
+	 * Parse date text, format of the text is learned.
+	 * @param text
+	 * @return null if text can't be parsed.
+	 */
+	public Date parse(String text) {
+		if (text == null) return null;
+
+		int format = learned;
+		if (format == SLASH_DATE || format == DOT_DATE) {
+			// separators of these formats can't match other formats
+			Date date = parse(text, format);
+			if (date != null) return date;
+		} else if (format != ISO_DATETIME && format != ISO_DATE) {
+			Date date = parseCanonical(text);
+			if (date != null) {
+				if (format != CANONICAL) learned = CANONICAL;
+				return date;
+			}
+		}
+
+		for (int i = ISO_DATETIME; i <= DOT_DATE; i++) {
+			Date date = parse(text, i);
+			if (date != null) {
+				if (format != i) learned = i;
+				return date;
+			}
+		}
+		
+		logger.log(Level.WARNING, "Failed to parse text into Date object. Inputted text is: " + text);
+		return null;
+	}
+
+	/**
+	 * Parse date text without learning its format.
+	 * @param text
+	 * @return null if text can't be parsed.
+	 */
+	static Date parseDate(String text) {
+		if (text == null) return null;
+
+		Date date = parseCanonical(text);
+		for (int i = ISO_DATETIME; date == null && i <= DOT_DATE; i++) {
+			date = parse(text, i);
+		}
+		return date;
+	}
+
+	/**
+	 * Parse time text like HH:mm:ss, as {@link DateUtil#getTimeFormat()} does.
+	 * @param text
+	 * @return Time of 1970-01-01, null if text can't be parsed.
+	 */
+	static Date parseTime(String text) {
+		if (text == null) return null;
+
+		DateFormat format = DateUtil.getTimeFormat();
+		if (text.length() == 8 && text.charAt(2) == ':' && text.charAt(5) == ':') {
+			Date date = toDate(1970, 1, 1, digits(text, 0, 2), digits(text, 3, 5), digits(text, 6, 8), format.getTimeZone());
+			if (date != null) return date;
+		}
+		return parse(format, text);
+	}
+
+	/**
+	 * Parse text of canonical shape.
+	 * @return null if text isn't of canonical shape, or it's not a valid date of proleptic Gregorian calendar.
+	 */
+	private static Date parseCanonical(String text) {
+		int length = text.length();
+		if (length != 10 && length != 19) return null;
+
+		char separator = text.charAt(4);
+		if (text.charAt(7) != separator) return null;
+
+		int year = digits(text, 0, 4);
+		int month = digits(text, 5, 7);
+		int day = digits(text, 8, 10);
+		if (length == 19) {
+			if (separator != '-' || text.charAt(10) != ' ' || text.charAt(13) != ':' || text.charAt(16) != ':') return null;
+
+			return toDate(year, month, day, digits(text, 11, 13), digits(text, 14, 16), digits(text, 17, 19),
+					DateUtil.getISODateTimeFormat().getTimeZone());
+		}
+
+		switch (separator) {
+		case '-':
+			// "yyyy-MM-dd HH:mm:ss" can't parse it, "yyyy-MM-dd" is used
+			return toDate(year, month, day, 0, 0, 0, DateUtil.getISODateFormat().getTimeZone());
+		case '/':
+			return toDate(year, month, day, 0, 0, 0, DateUtil.getSlashDateFormat().getTimeZone());
+		case '.':
+			return toDate(year, month, day, 0, 0, 0, DateUtil.getDotDateFormat().getTimeZone());
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return null if fields are out of range, or the date can't be converted as GregorianCalendar does, i.e. before
+	 * Gregorian calendar or local time in a gap or overlap of zone.
+	 */
+	private static Date toDate(int year, int month, int day, int hour, int minute, int second, TimeZone zone) {
+		if (year <= 1582 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+			return null;
+		}
+
+		LocalDateTime time = LocalDateTime.of(year, month, day, hour, minute, second);
+		ZoneRules rules = zone.toZoneId().getRules();
+		if (rules.getTransition(time) != null) return null;
+
+		return new Date(time.toEpochSecond(rules.getOffset(time)) * 1000);
+	}
+
+	private static Date parse(String text, int format) {
+		switch (format) {
+		case ISO_DATETIME:
+			return parse(DateUtil.getISODateTimeFormat(), text);
+		case ISO_DATE:
+			return parse(DateUtil.getISODateFormat(), text);
+		case SLASH_DATE:
+			return parse(DateUtil.getSlashDateFormat(), text);
+		case DOT_DATE:
+			return parse(DateUtil.getDotDateFormat(), text);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Same as {@link DateFormat#parse(String)}, but return null instead of throwing exception.
+	 */
+	private static Date parse(DateFormat format, String text) {
+		ParsePosition position = new ParsePosition(0);
+		Date date = format.parse(text, position);
+		return position.getIndex() == 0 ? null : date;
+	}
+
+	/**
+	 * @return Number of decimal digits text[start, end), -1 if there's other char.
+	 */
+	private static int digits(String text, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = text.charAt(i) - '0';
+			if (digit < 0 || digit > 9) return -1;
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+}
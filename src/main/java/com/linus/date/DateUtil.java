@@ -130,14 +130,10 @@ public class DateUtil {
 	 * @throws ParseException 
 	 */
 	public static Time parseTime(String text) {
-		Date date = null;
-		try {
-			date = getTimeFormat().parse(text);
-			return new Time(date.getTime());
-		} catch (ParseException e) {
-			logger.log(Level.WARNING, "Failed to parse time, input:" + text, e);
-		}
+		Date date = DateParser.parseTime(text);
+		if (date != null) return new Time(date.getTime());
 		
+		logger.log(Level.WARNING, "Failed to parse time, input:" + text);
 		return null;
 	}
 
@@ -327,30 +323,17 @@ public class DateUtil {
 	}
 
 	/**
-	 * Parse a date string into a Date object.
+	 * Parse a date string into a Date object. Formats are tried in order: yyyy-MM-dd HH:mm:ss, yyyy-MM-dd, yyyy/MM/dd,
+	 * yyyy.MM.dd, see {@link DateParser} which parses without exceptions.
 	 * 
 	 * @param text
 	 *            Date string representation.
 	 * @return Date Object
 	 */
 	public static Date parseDate(String text) {
-		Date date = null;
-		try {
-			date = getISODateTimeFormat().parse(text);
-		} catch (ParseException e) {
-			try {
-				date = getISODateFormat().parse(text);
-			} catch (ParseException e1) {
-				try {
-					date = getSlashDateFormat().parse(text);
-				} catch (ParseException e2) {
-					try {
-						date = getDotDateFormat().parse(text);
-					} catch (ParseException e3) {
-						logger.log(Level.WARNING, "Failed to parse text into Date object. Inputted text is: " + text);
-					}
-				}
-			}
+		Date date = DateParser.parseDate(text);
+		if (date == null) {
+			logger.log(Level.WARNING, "Failed to parse text into Date object. Inputted text is: " + text);
 		}
 
 		return date;
@@ -0,0 +1,65 @@
+package com.linus.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolve enum constants by text ignoring case, {@link ICustomEnum#value()} of custom enums and toString() of other
+ * enums. Lookup table of each enum class is built once and cached, so resolving is one hash lookup.
+ * 
+ * @author lyan2
+ */
+public final class EnumResolver {
+	
+	private static final ClassValue<Map<String, Object>> tables = new ClassValue<Map<String, Object>>() {
+		@Override
+		protected Map<String, Object> computeValue(Class<?> type) {
+			Object[] constants = type.getEnumConstants();
+			if (constants == null) return null;
+			
+			boolean custom = ICustomEnum.class.isAssignableFrom(type);
+			Map<String, Object> table = new HashMap<String, Object>(constants.length * 2);
+			for (Object constant : constants) {
+				String text = custom ? ((ICustomEnum) constant).value() : constant.toString();
+				if (text != null) {
+					// first declared constant wins, as linear scan did
+					table.putIfAbsent(fold(text), constant);
+				}
+			}
+			return table;
+		}
+	};
+	
+	private EnumResolver() {
+	}
+	
+	/**
+	 * @param type Enum class.
+	 * @param text
+	 * @return Constant whose text equals text ignoring case, null if none or type isn't an enum.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> E resolve(Class<E> type, String text) {
+		if (type == null || text == null) return null;
+		
+		Map<String, Object> table = tables.get(type);
+		return table == null ? null : (E) table.get(fold(text));
+	}
+	
+	/**
+	 * Fold case of each char as {@link String#equalsIgnoreCase(String)} compares them.
+	 */
+	private static String fold(String text) {
+		for (int i = 0, length = text.length(); i < length; i++) {
+			char c = text.charAt(i);
+			if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+				char[] chars = text.toCharArray();
+				for (int j = i; j < length; j++) {
+					chars[j] = Character.toLowerCase(Character.toUpperCase(chars[j]));
+				}
+				return new String(chars);
+			}
+		}
+		return text;
+	}
+}
@@ -5,21 +5,62 @@ import java.math.BigInteger;
 import java.sql.Time;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 
 import com.linus.date.DateUtil;
+import com.linus.enums.EnumResolver;
 import com.linus.enums.ICustomEnum;
+import com.linus.excel.validation.ValidationMode;
 
 public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
-	private final Logger logger = Logger.getLogger(AbstractSheetReader.class.getName());
-	
 	protected SimpleDateFormat timeformat = new SimpleDateFormat("HH:mm:ss");
 	
+	/**
+	 * Name and parameter types of methods which convert cells by type, a reader overriding any of them converts cells by
+	 * {@link #readCell(Cell, Class)} instead of converters of columns.
+	 */
+	private static final Object[][] CELL_HOOKS = {
+			{"readCell", new Class<?>[] {Cell.class, Class.class}},
+			{"readFromNumberCell", new Class<?>[] {Cell.class, Class.class}},
+			{"readFromStringCell", new Class<?>[] {Cell.class, Class.class}},
+			{"resolveNumber", new Class<?>[] {String.class, Class.class}},
+			{"resolveExcelEnum", new Class<?>[] {String.class, Class.class}},
+			{"resolveEnumValue", new Class<?>[] {String.class, Class.class}},
+			{"formatNumber", new Class<?>[] {Number.class}}};
+	
+	private static final ClassValue<Boolean> CELL_HOOKS_OVERRIDDEN = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return overridesCellHooks(type);
+		}
+	};
+	
+	public static final int DEFAULT_MAX_ERRORS = 1000;
+	
+	private ReadInstrumentation instrumentation;
+	
+	private ValidationMode validationMode = ValidationMode.FAIL_FAST;
+	
+	/**
+	 * Error budget of {@link ValidationMode#COLLECT_ALL} mode.
+	 */
+	private int maxErrors = DEFAULT_MAX_ERRORS;
+	
 	@SuppressWarnings("unchecked")
 	public static <T extends Number> T parseNumber(String text, Class<T> targetClass) {
 		String trimmed = text.trim();
@@ -54,6 +95,399 @@ public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
 		}
 	}
 	
+	@Override
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, Set<InvalidRowError<T>> violations) {
+		if (sheet == null) return null;
+		
+		return readSheet(sheet, headers, firstRowNum, sheet.getLastRowNum(), violations);
+	}
+	
+	@Override
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+		if (sheet == null) return null;
+		
+		return readSheet(rowIterator(sheet, firstRowNum, lastRowNum), headers, firstRowNum, lastRowNum, violations);
+	}
+	
+	/**
+	 * Read rows supplied by an iterator, for example a streaming iterator which doesn't need the whole sheet in memory.
+	 * Rows out of range [firstRowNum, lastRowNum] are skipped. Each row is validated according to ColumnConfigurations, 
+	 * invalid rows are not returned, reading stops at the first one or when error budget is used up, see 
+	 * {@link #setValidationMode(ValidationMode)}.
+	 * @param rows Rows in ascending row number order.
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 */
+	public List<T> readSheet(Iterator<Row> rows, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, final Set<InvalidRowError<T>> violations) {
+		final ArrayList<T> list = new ArrayList<T>();
+		
+		readSheet(rows, headers, firstRowNum, lastRowNum, new RowHandler<T>() {
+			@Override
+			public boolean handleRow(int rowIndex, T value, Set<InvalidRowError<T>> errors) {
+				if (errors.isEmpty()) {
+					list.add(value);
+				} else if (violations != null) {
+					violations.addAll(errors);
+				}
+				return true;
+			}
+		});
+		
+		return list;
+	}
+	
+	/**
+	 * Read sheet and push each row to handler instead of returning them in a list, so memory doesn't grow with sheet size.
+	 * @param sheet
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param handler
+	 */
+	public void readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, RowHandler<T> handler) {
+		if (sheet == null) return;
+		
+		readSheet(rowIterator(sheet, firstRowNum, lastRowNum), headers, firstRowNum, lastRowNum, handler);
+	}
+	
+	/**
+	 * Read rows supplied by an iterator and push each row to handler. Rows out of range [firstRowNum, lastRowNum] are skipped.
+	 * Each row is validated according to ColumnConfigurations, reading will stop when a invalid row is read (error budget 
+	 * is used up in {@link ValidationMode#COLLECT_ALL} mode) or handler returns false.
+	 * @param rows Rows in ascending row number order.
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param handler
+	 */
+	public void readSheet(Iterator<Row> rows, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, RowHandler<T> handler) {
+		// unique constraints remember values of this read only
+		List<ColumnConfiguration> session = ColumnConfiguration.forSession(headers);
+		try {
+			int errorCount = 0;
+			while (rows.hasNext()) {
+				Row row = rows.next();
+				int i = row.getRowNum();
+				if (i < firstRowNum) continue;
+				if (i > lastRowNum) break;
+				
+				T obj = convertRow(i, session, row);
+				if (obj != null) {
+					Set<InvalidRowError<T>> errors = checkRow(i, obj, session);
+					if (errors == null) {
+						errors = Collections.emptySet();
+					}
+					
+					if (!handler.handleRow(i, obj, errors)) {
+						break;
+					}
+					
+					if (!errors.isEmpty()) {
+						errorCount += errors.size();
+						if (isErrorBudgetUsedUp(errorCount)) break;
+					}
+				}
+			}
+		} finally {
+			ColumnConfiguration.endSession(session, headers);
+		}
+		
+		handler.endSheet();
+	}
+	
+	/**
+	 * Lazily read sheet, a row is converted and validated only when it's pulled from the iterator, so the rest of sheet 
+	 * costs nothing if caller stops early. Invalid rows are skipped and their errors are stored in violations, iteration
+	 * ends at the first one unless in {@link ValidationMode#COLLECT_ALL} mode.
+	 * @param sheet
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 */
+	public Iterator<T> iterateSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+		if (sheet == null) return Collections.<T>emptyIterator();
+		
+		return iterateSheet(rowIterator(sheet, firstRowNum, lastRowNum), headers, firstRowNum, lastRowNum, violations);
+	}
+	
+	/**
+	 * Lazily read rows supplied by an iterator. Rows out of range [firstRowNum, lastRowNum] are skipped.
+	 * @param rows Rows in ascending row number order.
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 * @see #iterateSheet(Sheet, List, int, int, Set)
+	 */
+	public Iterator<T> iterateSheet(Iterator<Row> rows, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+		return new SheetIterator(rows, headers, firstRowNum, lastRowNum, violations);
+	}
+	
+	/**
+	 * Lazily read sheet as a sequential stream, so it can be limited, filtered or short-circuited without reading the rest
+	 * of sheet. Invalid rows are handled as {@link #iterateSheet(Sheet, List, int, int, Set)} does. Close the stream if
+	 * it's not consumed to the end, so state of constraints is released.
+	 * @param sheet
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 */
+	public Stream<T> streamSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+		if (sheet == null) return Stream.empty();
+		
+		return streamSheet(rowIterator(sheet, firstRowNum, lastRowNum), headers, firstRowNum, lastRowNum, violations);
+	}
+	
+	/**
+	 * Lazily read rows supplied by an iterator as a sequential stream.
+	 * @param rows Rows in ascending row number order.
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 * @see #streamSheet(Sheet, List, int, int, Set)
+	 */
+	public Stream<T> streamSheet(Iterator<Row> rows, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+		SheetIterator iterator = new SheetIterator(rows, headers, firstRowNum, lastRowNum, violations);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(iterator::finish);
+	}
+	
+	/**
+	 * Read next valid row only when it's asked for. Session state of constraints is released when iteration ends.
+	 */
+	private class SheetIterator implements Iterator<T> {
+		private final Iterator<Row> rows;
+		private final List<ColumnConfiguration> configs;
+		private final List<ColumnConfiguration> headers;
+		private final int firstRowNum;
+		private final int lastRowNum;
+		private final Set<InvalidRowError<T>> violations;
+		
+		private T next;
+		private boolean finished = false;
+		private int errorCount = 0;
+		
+		private SheetIterator(Iterator<Row> rows, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+			this.rows = rows;
+			this.configs = headers;
+			this.headers = ColumnConfiguration.forSession(headers);
+			this.firstRowNum = firstRowNum;
+			this.lastRowNum = lastRowNum;
+			this.violations = violations;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			try {
+				while (next == null && !finished) {
+					if (!rows.hasNext()) {
+						finish();
+						break;
+					}
+					
+					Row row = rows.next();
+					int i = row.getRowNum();
+					if (i < firstRowNum) continue;
+					if (i > lastRowNum) {
+						finish();
+						break;
+					}
+					
+					T obj = convertRow(i, headers, row);
+					if (obj == null) continue;
+					
+					Set<InvalidRowError<T>> errors = checkRow(i, obj, headers);
+					if (errors == null || errors.isEmpty()) {
+						next = obj;
+					} else {
+						if (violations != null) violations.addAll(errors);
+						errorCount += errors.size();
+						if (isErrorBudgetUsedUp(errorCount)) finish();
+					}
+				}
+			} catch (RuntimeException | Error e) {
+				finish();
+				throw e;
+			}
+			
+			return next != null;
+		}
+		
+		/**
+		 * End iteration and release session state, rows not read yet are skipped.
+		 */
+		private void finish() {
+			if (finished) return;
+			
+			finished = true;
+			ColumnConfiguration.endSession(headers, configs);
+		}
+		
+		@Override
+		public T next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			
+			T current = next;
+			next = null;
+			return current;
+		}
+	}
+	
+	/**
+	 * Read a row, and report it to instrumentation if there is one.
+	 */
+	private T convertRow(int rowIndex, List<ColumnConfiguration> headers, Row row) {
+		ReadInstrumentation instrumentation = this.instrumentation;
+		if (instrumentation == null) return readRow(headers, row);
+		
+		long start = System.nanoTime();
+		T value = readRow(headers, row);
+		instrumentation.rowRead(rowIndex, countCells(headers, row), System.nanoTime() - start);
+		return value;
+	}
+	
+	/**
+	 * Validate a row, and report it to instrumentation if there is one.
+	 */
+	private Set<InvalidRowError<T>> checkRow(int rowIndex, T value, List<ColumnConfiguration> headers) {
+		ReadInstrumentation instrumentation = this.instrumentation;
+		if (instrumentation == null) return validateRow(rowIndex, value, headers);
+		
+		long start = System.nanoTime();
+		Set<InvalidRowError<T>> errors = validateRow(rowIndex, value, headers);
+		instrumentation.rowValidated(rowIndex, errors == null || errors.isEmpty(), System.nanoTime() - start);
+		return errors;
+	}
+	
+	/**
+	 * Number of cells converted for a row, it's reported to instrumentation.
+	 * @param headers
+	 * @param row
+	 * @return
+	 */
+	protected int countCells(List<ColumnConfiguration> headers, Row row) {
+		return headers == null ? 0 : headers.size();
+	}
+	
+	/**
+	 * Report a cell which can't be converted or set on row value to instrumentation.
+	 * @param row
+	 * @param column
+	 * @param cause
+	 */
+	protected void conversionFailed(Row row, ColumnConfiguration column, Exception cause) {
+		ReadInstrumentation instrumentation = this.instrumentation;
+		if (instrumentation != null) {
+			instrumentation.conversionFailed(row.getRowNum(), column, cause);
+		}
+	}
+	
+	/**
+	 * @param errorCount Number of errors found so far.
+	 * @return Whether reading should stop.
+	 */
+	protected boolean isErrorBudgetUsedUp(int errorCount) {
+		return validationMode == ValidationMode.FAIL_FAST || errorCount >= maxErrors;
+	}
+	
+	public ValidationMode getValidationMode() {
+		return validationMode;
+	}
+	
+	/**
+	 * @param validationMode {@link ValidationMode#FAIL_FAST} by default.
+	 */
+	public void setValidationMode(ValidationMode validationMode) {
+		this.validationMode = validationMode;
+	}
+	
+	public int getMaxErrors() {
+		return maxErrors;
+	}
+	
+	/**
+	 * In {@link ValidationMode#COLLECT_ALL} mode, reading stops after the row which makes number of errors reach maxErrors. 
+	 * It bounds memory of errors and time spent on a hopeless file.
+	 * @param maxErrors
+	 */
+	public void setMaxErrors(int maxErrors) {
+		if (maxErrors < 1) throw new IllegalArgumentException("Max errors must be positive: " + maxErrors);
+		this.maxErrors = maxErrors;
+	}
+	
+	public ReadInstrumentation getInstrumentation() {
+		return instrumentation;
+	}
+	
+	/**
+	 * @param instrumentation null to disable instrumentation.
+	 */
+	public void setInstrumentation(ReadInstrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+	
+	/**
+	 * Validate a row which has been read.
+	 * @param rowIndex
+	 * @param value
+	 * @param headers
+	 * @return Empty set or null if row is valid.
+	 */
+	protected abstract Set<InvalidRowError<T>> validateRow(int rowIndex, T value, List<ColumnConfiguration> headers);
+	
+	/**
+	 * Validate a row which has been read against constraints of the specified columns only. Readers which validate rows by
+	 * column constraints override it, others don't use column constraints at all.
+	 * @param rowIndex
+	 * @param value
+	 * @param headers Columns whose constraints are checked.
+	 * @return Empty set or null if row is valid.
+	 */
+	protected Set<InvalidRowError<T>> validateColumns(int rowIndex, T value, List<ColumnConfiguration> headers) {
+		return null;
+	}
+	
+	/**
+	 * Iterate existing rows of sheet from firstRowNum to lastRowNum, missing rows are skipped.
+	 * @param sheet
+	 * @param firstRowNum
+	 * @param lastRowNum
+	 * @return
+	 */
+	protected static Iterator<Row> rowIterator(final Sheet sheet, final int firstRowNum, final int lastRowNum) {
+		return new Iterator<Row>() {
+			private int next = firstRowNum;
+			private Row row;
+			
+			@Override
+			public boolean hasNext() {
+				while (row == null && next <= lastRowNum) {
+					row = sheet.getRow(next++);
+				}
+				return row != null;
+			}
+			
+			@Override
+			public Row next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				
+				Row current = row;
+				row = null;
+				return current;
+			}
+		};
+	}
+	
 	public Object readCell(Cell cell) {
 		if (cell == null) return null;
 		
@@ -82,9 +516,6 @@ public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
 	public Object readCell(Cell cell, Class<?> type) {
 		if (cell == null) return null;
 		
-		logger.log(Level.INFO, "Cell type " + cell.getCellType()
-				+ ", property type " + type);
-		
 		switch (cell.getCellType()) {
 		case BLANK: return null;
 		case ERROR: return null;
@@ -106,6 +537,42 @@ public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
 		}
 	}
 	
+	/**
+	 * Read cell value and convert it into column's type by the converter resolved for the column. If the reader overrides
+	 * {@link #readCell(Cell, Class)} or its hooks, e.g. {@link #resolveEnumValue(String, Class)}, cell is read by them
+	 * instead.
+	 * @param cell
+	 * @param config
+	 * @return
+	 */
+	protected Object readCell(Cell cell, ColumnConfiguration config) {
+		if (CELL_HOOKS_OVERRIDDEN.get(getClass())) {
+			Class<?> type = config.getType();
+			if (type == null && config.getPropertyDescriptor() != null) {
+				type = config.getPropertyDescriptor().getPropertyType();
+			}
+			return readCell(cell, type);
+		}
+		return config.getCellConverter().convert(cell);
+	}
+	
+	/**
+	 * @return Whether reader class declares a method of {@link #CELL_HOOKS} below AbstractSheetReader.
+	 */
+	private static boolean overridesCellHooks(Class<?> type) {
+		for (Class<?> c = type; c != null && c != AbstractSheetReader.class; c = c.getSuperclass()) {
+			for (Object[] hook : CELL_HOOKS) {
+				try {
+					c.getDeclaredMethod((String) hook[0], (Class<?>[]) hook[1]);
+					return true;
+				} catch (NoSuchMethodException e) {
+					// not overridden by this class
+				}
+			}
+		}
+		return false;
+	}
+	
 	/**
 	 * Remove scientific notation
 	 * @param value
@@ -165,14 +632,10 @@ public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
 		if (Time.class.isAssignableFrom(type)) {
 			Date date = cell.getDateCellValue();
 			String time = timeformat.format(date);
-			logger.log(Level.INFO, "Time cell value is " + cellVal);
-			logger.log(Level.INFO, "Time cell format is " + time);
 			return Time.valueOf(time);
 		} else if (Date.class.isAssignableFrom(type)) {
-			logger.log(Level.INFO, "Date cell value is " + cellVal);
 			return cell.getDateCellValue();
 		} else if (Calendar.class.isAssignableFrom(type)) {
-			logger.log(Level.INFO, "Date cell value is " + cellVal);
 			return new Calendar.Builder().setInstant(cell.getDateCellValue()).build();
 		} else if (String.class.isAssignableFrom(type)) {
 			return formatNumber(cellVal);
@@ -227,13 +690,7 @@ public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
 	 * @return
 	 */
 	protected ICustomEnum resolveExcelEnum(String value, Class<ICustomEnum> type) {
-		for (ICustomEnum constant : type.getEnumConstants()) {
-			if (constant.value().equalsIgnoreCase(value)) {
-				return constant;
-			}
-		}
-		
-		return null;
+		return EnumResolver.resolve(type, value);
 	}
 	
 	/**
@@ -243,13 +700,7 @@ public abstract class AbstractSheetReader<T> implements ISheetReader<T> {
 	 * @return
 	 */
 	protected <P> P resolveEnumValue(String value, Class<P> type) {
-		for (P constant : type.getEnumConstants()) {
-			if (constant.toString().equalsIgnoreCase(value)) {
-				return constant;
-			}
-		}
-		
-		return null;
+		return EnumResolver.resolve(type, value);
 	}
 	
 	/**
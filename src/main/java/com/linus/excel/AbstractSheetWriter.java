@@ -1,6 +1,10 @@
 package com.linus.excel;
 
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -9,41 +13,68 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.poi.hssf.usermodel.HSSFDataFormat;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.DataFormat;
-import org.apache.poi.ss.usermodel.DataValidation;
-import org.apache.poi.ss.usermodel.DataValidationConstraint;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.SheetVisibility;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddressList;
-import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.usermodel.XSSFDataValidationHelper;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import com.linus.date.DateUtil;
 import com.linus.excel.util.StringUtil;
 import com.linus.excel.validation.ColumnConstraint;
 import com.linus.excel.validation.DoubleColumnConstraint;
+import com.linus.excel.validation.IntegerRangeColumnConstraint;
+import com.linus.excel.validation.RangeColumnConstraint;
 
 /**
  * Generate a sheet, just contains title and data. Please create a new instance of this class for each sheet.
+ * <p>
+ * If the workbook is a SXSSFWorkbook (see {@link #createStreamingWorkbook(int)}), sheet is written in streaming mode: only
+ * a window of rows is kept in memory, other rows are flushed to temporary files.
  *
  * @param <T>
  * @author lyan2
  */
 public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
 
+  /**
+   * Default number of rows kept in memory in streaming mode.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 100;
+
+  /**
+   * Number of rows covered by data validations of templates, see {@link #setTemplateRows(int)}.
+   */
+  public static final int DEFAULT_TEMPLATE_ROWS = 1000;
+
+  /**
+   * Built-in text format.
+   */
+  private static final String TEXT_FORMAT = BuiltinFormats.getBuiltinFormat(0x31);
+
+  /**
+   * Formats of java.time values, same as DateUtil's.
+   */
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+  private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+  /**
+   * Kinds of date columns, written as serials truncated to what the column displays.
+   */
+  private enum DateKind {
+    DATE, DATETIME, TIME
+  }
+
   private final Logger logger = Logger.getLogger(AbstractSheetWriter.class.getName());
 
   protected int firstDataRowNum = 0;
@@ -58,6 +89,44 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
 
   protected String optionsSheetName = "options";
 
+  /**
+   * Write date, datetime and time columns as numeric serials instead of formatted text.
+   */
+  protected boolean nativeDates = false;
+
+  /**
+   * Date windowing of workbook, resolved at the first native date.
+   */
+  private Boolean date1904;
+
+  /**
+   * Adjust width of columns without length by sheet.autoSizeColumn instead of estimating it while writing.
+   */
+  protected boolean autoSizeColumns = false;
+
+  /**
+   * Number of rows measured for column width, 0 means all rows.
+   */
+  protected int widthSampleRows = 0;
+
+  /**
+   * Number of rows covered by data validations when sheet has no data rows, e.g. an import template of titles only. By
+   * default it's 0, a sheet without data rows has no data validations.
+   */
+  protected int templateRows = 0;
+
+  protected ColumnWidthEstimator widthEstimator;
+
+  /**
+   * Validations of the sheet being finished, they are added at once at the end of {@link #finishSheet(Workbook, Sheet)}.
+   */
+  protected DataValidationBuilder validationBuilder;
+
+  /**
+   * Styles are interned per workbook, so writers of the same workbook share them.
+   */
+  protected final CellStyleRegistry styleRegistry;
+
   /**
    * Cache for data cell styles. For plain object's field, this is fixed.
    */
@@ -67,25 +136,41 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
     super();
     this.book = book;
     this.configs = configs;
+    this.styleRegistry = CellStyleRegistry.forWorkbook(book);
     initDefault(book, configs);
   }
 
+  /**
+   * Create a workbook for streaming mode. Rows out of the window are flushed to temporary files, so call
+   * SXSSFWorkbook.dispose() after the workbook is written to delete them.
+   *
+   * @param windowSize Number of rows kept in memory.
+   * @return
+   */
+  public static SXSSFWorkbook createStreamingWorkbook(int windowSize) {
+    return new SXSSFWorkbook(windowSize);
+  }
+
+  /**
+   * Create a workbook for streaming mode which keeps {@link #DEFAULT_WINDOW_SIZE} rows in memory.
+   *
+   * @return
+   */
+  public static SXSSFWorkbook createStreamingWorkbook() {
+    return createStreamingWorkbook(DEFAULT_WINDOW_SIZE);
+  }
+
   protected void initDefault(Workbook book, List<ColumnConfiguration> configs) {
     if (this.dataCellFont == null) {
-      Font ft1 = book.createFont();
-      ft1.setFontName("Arial");
-      ft1.setFontHeightInPoints((short) 12);
-      dataCellFont = ft1;
+      dataCellFont = styleRegistry.getFont("Arial", (short) 12, false);
     }
 
     for (ColumnConfiguration config : configs) {
       if (config != null) {
         CellStyle cellStyle = dataCellStyleMapping.get(config.getColumnIndex());
         if (cellStyle == null) {
-          cellStyle = book.createCellStyle();
-          cellStyle.setLocked(!config.getWritable());
-          cellStyle.setWrapText(true);
-          cellStyle.setFont(dataCellFont);
+          // shared by columns which have the same writable setting
+          cellStyle = styleRegistry.getCellStyle(dataCellFont, !config.getWritable());
 
           dataCellStyleMapping.put(config.getColumnIndex(), cellStyle);
         }
@@ -99,17 +184,9 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
   public CellStyle getHeaderCellStyle() {
     if (headerCellStyle == null) {
       // default header cell style
-      headerCellStyle = book.createCellStyle();
-      headerCellStyle.setAlignment(HorizontalAlignment.CENTER);
-      headerCellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-      headerCellStyle.setFillForegroundColor(IndexedColors.LIME.getIndex());
-      headerCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-      headerCellStyle.setWrapText(true);
-      Font ft = book.createFont();
-      ft.setFontName("Arial");
-      ft.setBold(true);
-      ft.setFontHeightInPoints((short) 12);
-      headerCellStyle.setFont(ft);
+      Font ft = styleRegistry.getFont("Arial", (short) 12, true);
+      headerCellStyle = styleRegistry.getCellStyle(ft, HorizontalAlignment.CENTER, VerticalAlignment.CENTER, null,
+              true, true, IndexedColors.LIME.getIndex(), FillPatternType.SOLID_FOREGROUND);
     }
 
     return headerCellStyle;
@@ -126,7 +203,8 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
   }
 
   /**
-   * Solve the maximum number of Cell Styles was exceeded issue.
+   * Solve the maximum number of Cell Styles was exceeded issue. Note: the style may be shared by other columns, don't
+   * change it, derive a new one from {@link #getStyleRegistry()} instead.
    *
    * @param columnIndex
    * @return
@@ -136,6 +214,183 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
     return cellStyle;
   }
 
+  public CellStyleRegistry getStyleRegistry() {
+    return styleRegistry;
+  }
+
+  /**
+   * Prepare sheet before any row is written. Column widths are estimated from cells as they are written, or in streaming
+   * mode, auto sized columns must be tracked before rows are flushed.
+   *
+   * @param sheet
+   */
+  protected void prepareSheet(Sheet sheet) {
+    widthEstimator = autoSizeColumns ? null : new ColumnWidthEstimator(sheet, widthSampleRows);
+
+    if (autoSizeColumns && sheet instanceof SXSSFSheet) {
+      for (ColumnConfiguration config : configs) {
+        if (config != null && config.getLength() == null) {
+          ((SXSSFSheet) sheet).trackColumnForAutoSizing(config.getColumnIndex());
+        }
+      }
+    }
+  }
+
+  /**
+   * Finish sheet after all rows are written: hide columns, create data validations and adjust column width.
+   *
+   * @param book
+   * @param sheet
+   */
+  protected void finishSheet(Workbook book, Sheet sheet) {
+    finishSheet(book, sheet, firstDataRowNum, widthEstimator);
+  }
+
+  /**
+   * Finish sheet of data rows from firstDataRowNum, e.g. rows appended by a session.
+   *
+   * @param book
+   * @param sheet
+   * @param firstDataRowNum First row covered by data validations.
+   * @param estimator Estimated widths of columns, null if columns are auto sized.
+   */
+  protected void finishSheet(Workbook book, Sheet sheet, int firstDataRowNum, ColumnWidthEstimator estimator) {
+    for (ColumnConfiguration config : configs) {
+      if (!config.getDisplay()) {
+        hideColumn(sheet, config.getColumnIndex());
+      }
+    }
+
+    int lastDataRowNum = sheet.getLastRowNum();
+    if (firstDataRowNum > lastDataRowNum) {
+      // no data, validations cover rows to be filled in
+      if (templateRows <= 0) return;
+      lastDataRowNum = firstDataRowNum + templateRows - 1;
+    }
+
+    validationBuilder = new DataValidationBuilder(sheet, firstDataRowNum, lastDataRowNum);
+    for (ColumnConfiguration config : configs) {
+      List<ColumnConstraint> constraints = config.getConstraints();
+      for (ColumnConstraint constraint : constraints) {
+        if (constraint instanceof RangeColumnConstraint) {
+          // only support single
+          if (((RangeColumnConstraint) constraint).isAllowMultiple()) break;
+
+          createRangeValidation(book, sheet, config, (RangeColumnConstraint) constraint);
+          break;
+        }
+
+        if (constraint instanceof IntegerRangeColumnConstraint) {
+          createIntegerRangeValidation(sheet, config, (IntegerRangeColumnConstraint) constraint);
+          break;
+        }
+      }
+    }
+    validationBuilder.build();
+    validationBuilder = null;
+
+    adjustColumnWidth(sheet, configs, estimator);
+  }
+
+  /**
+   * Open a session to append rows to sheet in batches, finishing steps are deferred to
+   * {@link SheetWriterSession#finish()}. If sheet is empty, title is created when hasTitle. Otherwise rows are appended
+   * after its last row, and when hasTitle, its first row is taken as the title so data validations don't cover it.
+   * Columns of a sheet appended to keep their widths if they are wider than the new rows need.
+   * <p>
+   * First data row and column widths are kept by the session, so the writer's first data row and width estimator
+   * aren't changed.
+   *
+   * @param sheet
+   * @param hasTitle
+   * @return
+   */
+  public SheetWriterSession<T> openSession(Sheet sheet, boolean hasTitle) {
+    ColumnWidthEstimator writerEstimator = widthEstimator;
+    prepareSheet(sheet);
+    ColumnWidthEstimator estimator = widthEstimator;
+
+    int titleRowNum = firstDataRowNum;
+    int dataRowNum = firstDataRowNum;
+    int nextRowNum;
+    if (sheet.getPhysicalNumberOfRows() == 0) {
+      if (hasTitle) {
+        // title rows are counted into first data row by createTitle, only the session keeps it
+        createTitle(book, sheet, configs);
+        dataRowNum = firstDataRowNum;
+        firstDataRowNum = titleRowNum;
+      }
+      nextRowNum = dataRowNum;
+    } else {
+      if (hasTitle) {
+        dataRowNum = Math.max(dataRowNum, sheet.getFirstRowNum() + 1);
+      }
+      nextRowNum = Math.max(dataRowNum, sheet.getLastRowNum() + 1);
+
+      if (estimator != null) {
+        for (ColumnConfiguration config : configs) {
+          if (config != null && config.getLength() == null) {
+            estimator.include(config.getColumnIndex(), sheet.getColumnWidth(config.getColumnIndex()));
+          }
+        }
+      }
+    }
+    widthEstimator = writerEstimator;
+    return new SheetWriterSession<T>(this, sheet, dataRowNum, nextRowNum, estimator);
+  }
+
+  /**
+   * Write a row of a session, cells are measured by the session's estimator, the writer's is restored afterwards.
+   *
+   * @param book
+   * @param sheet
+   * @param row
+   * @param data
+   * @param estimator
+   */
+  void writeRow(Workbook book, Sheet sheet, Row row, T data, ColumnWidthEstimator estimator) {
+    ColumnWidthEstimator writerEstimator = widthEstimator;
+    widthEstimator = estimator;
+    try {
+      writeRow(book, sheet, row, data);
+    } finally {
+      widthEstimator = writerEstimator;
+    }
+  }
+
+  /**
+   * Create a dropdown list from pick list, options are stored in options sheet. Columns of all sheets of the workbook
+   * share options of the same pick list, see {@link OptionsRegistry}.
+   *
+   * @param book
+   * @param sheet
+   * @param config
+   * @param constraint
+   */
+  protected void createRangeValidation(Workbook book, Sheet sheet, ColumnConfiguration config,
+                                       RangeColumnConstraint constraint) {
+    List<String> options = Arrays.asList(constraint.getPickList());
+    String optionsName = OptionsRegistry.forWorkbook(book).getOptions(optionsSheetName, options, config.getKey());
+    this.createDropdown(book, sheet, config.getColumnIndex(), optionsName);
+  }
+
+  /**
+   * Only integer between constraint's min and max can be inputted.
+   *
+   * @param sheet
+   * @param config
+   * @param constraint
+   */
+  protected void createIntegerRangeValidation(Sheet sheet, ColumnConfiguration config,
+                                              IntegerRangeColumnConstraint constraint) {
+    DataValidationBuilder builder = getValidationBuilder(sheet);
+    builder.addIntegerRange(constraint.getMin(), constraint.getMax(), builder.getFirstRow(), builder.getLastRow(),
+            config.getColumnIndex());
+    if (builder != validationBuilder) {
+      builder.build();
+    }
+  }
+
   protected void createTitle(Workbook book, Sheet sheet,
                              List<ColumnConfiguration> configs) {
     // remain a row for appeal explanation before title row
@@ -153,7 +408,8 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    * <p>
    * Adjust column width. If there is visible character length setting, then
    * use this length setting. If there is no length setting, adjusts the
-   * column width to fit the contents.
+   * column width to fit the contents, as estimated while cells are written,
+   * or by sheet.autoSizeColumn if {@link #setAutoSizeColumns(boolean)}.
    * <p>
    * To compute the actual number of visible characters, Excel uses the
    * following formula (Section 3.3.1.12 of the OOXML spec):
@@ -170,6 +426,17 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    * @param configs
    */
   protected void adjustColumnWidth(Sheet sheet, List<ColumnConfiguration> configs) {
+    adjustColumnWidth(sheet, configs, widthEstimator);
+  }
+
+  /**
+   * Adjust column width, see {@link #adjustColumnWidth(Sheet, List)}.
+   *
+   * @param sheet
+   * @param configs
+   * @param estimator Estimated widths of columns, null if columns are auto sized.
+   */
+  protected void adjustColumnWidth(Sheet sheet, List<ColumnConfiguration> configs, ColumnWidthEstimator estimator) {
 
     for (ColumnConfiguration config : configs) {
 
@@ -177,8 +444,13 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
         // character length + 2, 256 is a character's width;
         int columnWidth = 512 * (config.getLength() + 2);
         sheet.setColumnWidth(config.getColumnIndex(), columnWidth);
-      } else {
+      } else if (autoSizeColumns) {
         sheet.autoSizeColumn(config.getColumnIndex());
+      } else if (estimator != null && estimator.getSheet() == sheet) {
+        int columnWidth = estimator.getColumnWidth(config.getColumnIndex());
+        if (columnWidth > 0) {
+          sheet.setColumnWidth(config.getColumnIndex(), columnWidth);
+        }
       }
 
     }
@@ -192,6 +464,7 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
     if (config.getRawType() == null) {
       // attachment doesn't have raw type.
       createCell(book, row, config, value, cellStyle);
+      measureCell(sheet, row, config.getColumnIndex());
       return;
     }
 
@@ -216,7 +489,8 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
         break;
       case "COMBOBOX":
       case "PICKLIST":
-        cellStyle.setAlignment(HorizontalAlignment.CENTER);
+        createCell(book, row, config, value, styleRegistry.derive(cellStyle, HorizontalAlignment.CENTER, null));
+        break;
       case "STRING":
       case "TEXTAREA":
       default:
@@ -224,36 +498,47 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
         break;
     }
 
+    measureCell(sheet, row, config.getColumnIndex());
   }
 
   public void createCell(Workbook book, Sheet sheet, Row row, int column, Object value, CellStyle style) {
-    CellStyle cellStyle = book.createCellStyle();
-    cellStyle.cloneStyleFrom(style);
     Cell cell = null;
 
     if (value instanceof Number) {
       cell = row.createCell(column, CellType.NUMERIC);
-      cellStyle.setAlignment(HorizontalAlignment.RIGHT);
       cell.setCellValue(((Number) value).doubleValue());
-      cell.setCellStyle(cellStyle);
+      cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.RIGHT, null));
     } else if (value instanceof Date) {
       cell = row.createCell(column, CellType.NUMERIC);
-      cellStyle.setAlignment(HorizontalAlignment.CENTER);
-      cell.setCellStyle(cellStyle);
+      cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, null));
       cell.setCellValue((Date) value);
     } else if (value instanceof Boolean) {
       cell = row.createCell(column, CellType.BOOLEAN);
-      cellStyle.setAlignment(HorizontalAlignment.CENTER);
-      cell.setCellStyle(cellStyle);
+      cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, null));
       cell.setCellValue((Boolean) value);
     } else if (value == null) {
       cell = row.createCell(column, CellType.BLANK);
     } else {
       cell = row.createCell(column, CellType.STRING);
       cell.setCellValue(value.toString());
-      cell.setCellStyle(cellStyle);
+      cell.setCellStyle(style);
     }
 
+    measureCell(sheet, row, column);
+  }
+
+  /**
+   * Count a written cell into the estimated width of its column.
+   *
+   * @param sheet
+   * @param row
+   * @param column
+   */
+  protected void measureCell(Sheet sheet, Row row, int column) {
+    if (widthEstimator == null || widthEstimator.getSheet() != sheet) {
+      return;
+    }
+    widthEstimator.measure(row.getCell(column));
   }
 
   /**
@@ -272,8 +557,7 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
       cell.setBlank();
     }
 
-    style.setDataFormat(HSSFDataFormat.getBuiltinFormat("text"));
-    cell.setCellStyle(style);
+    cell.setCellStyle(styleRegistry.derive(style, null, TEXT_FORMAT));
   }
 
   /**
@@ -287,10 +571,7 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
   private void createPercentCell(Workbook book, Row row, ColumnConfiguration config, Object value, CellStyle style) {
     Cell cell = row.createCell(config.getColumnIndex(), CellType.NUMERIC);
 
-    style.setAlignment(HorizontalAlignment.CENTER);
-    DataFormat df = book.createDataFormat();
-    style.setDataFormat(df.getFormat("0.00%"));
-    cell.setCellStyle(style);
+    cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, "0.00%"));
 
     if (value != null && value instanceof Number) {
       cell.setCellValue(((Number) value).doubleValue());
@@ -316,7 +597,6 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    */
   private void createDoubleCell(Workbook book, Row row, ColumnConfiguration config, Object value, CellStyle style) {
     Cell cell = row.createCell(config.getColumnIndex(), CellType.NUMERIC);
-    style.setAlignment(HorizontalAlignment.RIGHT);
 
     String currency = null;
     String format = null;
@@ -332,7 +612,6 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
         if (((DoubleColumnConstraint) constraint).getDigits() > 0) {
           format += "." + StringUtil.repeat("0", ((DoubleColumnConstraint) constraint).getDigits());
         }
-        style.setDataFormat(book.createDataFormat().getFormat(format));
       }
     }
 
@@ -344,10 +623,8 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
       }
     }
 
-    if (format != null) {
-      style.setDataFormat(book.createDataFormat().getFormat(format));
-    }
-    cell.setCellStyle(style);
+    // null format keeps style's format
+    cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.RIGHT, format));
 
     if (value != null) {
       if (value instanceof Number) {
@@ -378,9 +655,7 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    */
   private void createIntCell(Workbook book, Row row, ColumnConfiguration config, Object value, CellStyle style) {
     Cell cell = row.createCell(config.getColumnIndex(), CellType.NUMERIC);
-    style.setAlignment(HorizontalAlignment.CENTER);
-
-    cell.setCellStyle(style);
+    cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, null));
 
     if (value != null) {
       if (value instanceof Number) {
@@ -408,10 +683,11 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    */
   private void createDateCell(Workbook book, Row row, ColumnConfiguration config, Object value, CellStyle style) {
     Cell cell = row.createCell(config.getColumnIndex(), CellType.NUMERIC);
-    style.setAlignment(HorizontalAlignment.CENTER);
-    DataFormat df = book.createDataFormat();
-    style.setDataFormat(df.getFormat("yyyy-MM-dd"));
-    cell.setCellStyle(style);
+    cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, "yyyy-MM-dd"));
+
+    if (nativeDates && setSerialDate(cell, value, DateKind.DATE)) {
+      return;
+    }
 
     if (value != null) {
       if (value instanceof Date) {
@@ -419,9 +695,11 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
       } else if (value instanceof String) {
         cell.setCellValue((String) value);
       } else if (value instanceof Number) {
-        Calendar date = Calendar.getInstance();
-        date.setTimeInMillis((long) value);
-        cell.setCellValue(DateUtil.formatISODate(date.getTime(), null));
+        cell.setCellValue(DateUtil.formatISODate(new Date(((Number) value).longValue()), null));
+      } else if (value instanceof LocalDate) {
+        cell.setCellValue(DATE_FORMATTER.format((LocalDate) value));
+      } else if (value instanceof LocalDateTime) {
+        cell.setCellValue(DATE_FORMATTER.format((LocalDateTime) value));
       }
     } else {
       cell.setBlank();
@@ -439,19 +717,22 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    */
   private void createDateTimeCell(Workbook book, Row row, ColumnConfiguration config, Object value, CellStyle style) {
     Cell cell = row.createCell(config.getColumnIndex(), CellType.NUMERIC);
-    style.setAlignment(HorizontalAlignment.CENTER);
-    DataFormat df = book.createDataFormat();
-    style.setDataFormat(df.getFormat("yyyy-MM-dd HH:mm:ss"));
-    cell.setCellStyle(style);
+    cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, "yyyy-MM-dd HH:mm:ss"));
+
+    if (nativeDates && setSerialDate(cell, value, DateKind.DATETIME)) {
+      return;
+    }
 
     if (value instanceof Date && value != null) {
       cell.setCellValue(DateUtil.formatISODateTime((Date) value, null));
     } else if (value instanceof String && value != null) {
       cell.setCellValue((String) value);
     } else if (value instanceof Number) {
-      Calendar date = Calendar.getInstance();
-      date.setTimeInMillis((long) value);
-      cell.setCellValue(DateUtil.formatISODateTime(date.getTime(), null));
+      cell.setCellValue(DateUtil.formatISODateTime(new Date(((Number) value).longValue()), null));
+    } else if (value instanceof LocalDateTime) {
+      cell.setCellValue(DATETIME_FORMATTER.format((LocalDateTime) value));
+    } else if (value instanceof LocalDate) {
+      cell.setCellValue(DATETIME_FORMATTER.format(((LocalDate) value).atStartOfDay()));
     } else {
       cell.setBlank();
     }
@@ -467,57 +748,103 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
    */
   private void createTimeCell(Workbook book, Row row, ColumnConfiguration config, Object value, CellStyle style) {
     Cell cell = row.createCell(config.getColumnIndex(), CellType.NUMERIC);
-    style.setAlignment(HorizontalAlignment.CENTER);
-    DataFormat df = book.createDataFormat();
-    style.setDataFormat(df.getFormat("HH:mm:ss"));
-    cell.setCellStyle(style);
+    cell.setCellStyle(styleRegistry.derive(style, HorizontalAlignment.CENTER, "HH:mm:ss"));
+
+    if (nativeDates && setSerialDate(cell, value, DateKind.TIME)) {
+      return;
+    }
 
     if (value instanceof Date && value != null) {
       cell.setCellValue(DateUtil.formatTime((Date) value));
     } else if (value instanceof String && value != null) {
       cell.setCellValue((String) value);
+    } else if (value instanceof LocalTime) {
+      cell.setCellValue(TIME_FORMATTER.format((LocalTime) value));
+    } else if (value instanceof LocalDateTime) {
+      cell.setCellValue(TIME_FORMATTER.format((LocalDateTime) value));
     } else {
       cell.setBlank();
     }
   }
 
-  public void createOptions(List<String> values, String optionName) {
-    Sheet sheet = book.getSheet(optionsSheetName);
-    if (sheet == null) {
-      sheet = book.createSheet(optionsSheetName);
-      book.setSheetVisibility(book.getSheetIndex(optionsSheetName), SheetVisibility.HIDDEN);
+  /**
+   * Set value as a date serial, truncated as the formatted text of the column is.
+   *
+   * @param cell
+   * @param value
+   * @param kind
+   * @return false if value isn't a date, or it can't be a serial, e.g. before 1900.
+   */
+  private boolean setSerialDate(Cell cell, Object value, DateKind kind) {
+    LocalDateTime time;
+    if (value instanceof Date) {
+      time = SerialDates.toLocalDateTime((Date) value);
+    } else if (value instanceof Number) {
+      time = SerialDates.toLocalDateTime(new Date(((Number) value).longValue()));
+    } else if (value instanceof LocalDateTime) {
+      time = (LocalDateTime) value;
+    } else if (value instanceof LocalDate && kind != DateKind.TIME) {
+      time = ((LocalDate) value).atStartOfDay();
+    } else if (value instanceof LocalTime && kind == DateKind.TIME) {
+      time = ((LocalTime) value).atDate(LocalDate.of(1900, 1, 1));
+    } else {
+      return false;
     }
 
-    Name namedArea = book.createName();
-    namedArea.setNameName(optionName);
-
-    Row optionLabelRow = sheet.createRow(0);
-    int columnIndex = optionLabelRow.getLastCellNum() + 1;
-    optionLabelRow.createCell(columnIndex).setCellValue(optionName);
-
-    int rowIndex = 1;
+    if (kind == DateKind.TIME) {
+      // serial of time without days, windowing doesn't matter
+      cell.setCellValue(SerialDates.toSerial(time.toLocalTime().withNano(0)));
+      return true;
+    }
 
-    for (String value : values) {
-      Row row = sheet.createRow(rowIndex++);
-      row.createCell(columnIndex).setCellValue(value);
+    time = kind == DateKind.DATE ? time.toLocalDate().atStartOfDay() : time.withNano(0);
+    if (date1904 == null) {
+      // new workbooks of other formats use 1900 windowing
+      date1904 = Boolean.TRUE.equals(SerialDates.isDate1904(book));
     }
 
-    String colStr = CellReference.convertNumToColString(columnIndex);
-    String formular = String.format("%s!$%s$2:$%s$%d", sheet.getSheetName(), colStr, colStr, rowIndex);
-    namedArea.setRefersToFormula(formular);
+    double serial = SerialDates.toSerial(time, date1904);
+    if (serial < 0) return false;
+    cell.setCellValue(serial);
+    return true;
   }
 
-  public void createDropdown(Workbook wb, Sheet sheet, int columnIndex, String optionsName) {
-    XSSFDataValidationHelper dvHelper = new XSSFDataValidationHelper((XSSFSheet) sheet);
+  /**
+   * Store options in a new column of options sheet, with a named range of optionName referring to them.
+   *
+   * @param values
+   * @param optionName
+   */
+  public void createOptions(List<String> values, String optionName) {
+    OptionsRegistry.forWorkbook(book).createOptions(optionsSheetName, values, optionName);
+  }
 
-    DataValidationConstraint constraint = dvHelper.createFormulaListConstraint(optionsName);
+  /**
+   * Create a dropdown of named options. While sheet is being finished, it's added with other validations of the sheet.
+   *
+   * @param wb
+   * @param sheet
+   * @param columnIndex
+   * @param optionsName
+   */
+  public void createDropdown(Workbook wb, Sheet sheet, int columnIndex, String optionsName) {
+    DataValidationBuilder builder = getValidationBuilder(sheet);
+    builder.addFormulaList(optionsName, builder.getFirstRow(), builder.getLastRow(), columnIndex, true);
+    if (builder != validationBuilder) {
+      builder.build();
+    }
+  }
 
-    CellRangeAddressList addressList = new CellRangeAddressList(firstDataRowNum, sheet.getLastRowNum(), columnIndex, columnIndex);
-    DataValidation dv = dvHelper.createValidation(constraint, addressList);
-    // Display pick list when user click the cell.
-    dv.setSuppressDropDownArrow(true);
-    dv.setShowErrorBox(true);
-    sheet.addValidationData(dv);
+  /**
+   * @param sheet
+   * @return Builder of the sheet being finished, or a new one of rows from first data row which should be built by
+   * caller.
+   */
+  protected DataValidationBuilder getValidationBuilder(Sheet sheet) {
+    if (validationBuilder != null && validationBuilder.getSheet() == sheet) {
+      return validationBuilder;
+    }
+    return new DataValidationBuilder(sheet, firstDataRowNum, sheet.getLastRowNum());
   }
 
   public int getFirstDataRowNum() {
@@ -528,6 +855,53 @@ public abstract class AbstractSheetWriter<T> implements ISheetWriter<T> {
     this.firstDataRowNum = firstDataRowNum;
   }
 
+  public boolean isNativeDates() {
+    return nativeDates;
+  }
+
+  /**
+   * @param nativeDates Whether date, datetime and time columns are written as numeric serials with the date style of the
+   *          column, instead of formatted text. Off by default.
+   */
+  public void setNativeDates(boolean nativeDates) {
+    this.nativeDates = nativeDates;
+  }
+
+  public boolean isAutoSizeColumns() {
+    return autoSizeColumns;
+  }
+
+  /**
+   * @param autoSizeColumns Whether columns without length are adjusted by sheet.autoSizeColumn, which is accurate but
+   *          scans all cells again. By default widths are estimated while cells are written.
+   */
+  public void setAutoSizeColumns(boolean autoSizeColumns) {
+    this.autoSizeColumns = autoSizeColumns;
+  }
+
+  public int getWidthSampleRows() {
+    return widthSampleRows;
+  }
+
+  /**
+   * @param widthSampleRows Number of rows, from the first one written, measured for column width. 0 means all rows.
+   */
+  public void setWidthSampleRows(int widthSampleRows) {
+    this.widthSampleRows = widthSampleRows;
+  }
+
+  public int getTemplateRows() {
+    return templateRows;
+  }
+
+  /**
+   * @param templateRows Number of rows covered by data validations when sheet has no data rows, 0 means a sheet
+   *          without data rows has no data validations.
+   */
+  public void setTemplateRows(int templateRows) {
+    this.templateRows = templateRows;
+  }
+
   public String getOptionsSheetName() {
     return optionsSheetName;
   }
@@ -6,14 +6,7 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddressList;
-import org.apache.poi.xssf.usermodel.XSSFDataValidation;
-import org.apache.poi.xssf.usermodel.XSSFDataValidationConstraint;
-import org.apache.poi.xssf.usermodel.XSSFDataValidationHelper;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
 
-import com.linus.excel.validation.ColumnConstraint;
-import com.linus.excel.validation.IntegerRangeColumnConstraint;
 import com.linus.excel.validation.RangeColumnConstraint;
 
 public class ArrayListSheetWriter<T> extends AbstractSheetWriter<T[]> {
@@ -35,6 +28,8 @@ public class ArrayListSheetWriter<T> extends AbstractSheetWriter<T[]> {
 	@Override
 	public void writeSheet(Workbook book, Sheet sheet, List<T[]> list,
 			boolean hasTitle) {
+		prepareSheet(sheet);
+
 		if (hasTitle)
 			createTitle(book, sheet, configs);
 
@@ -44,73 +39,21 @@ public class ArrayListSheetWriter<T> extends AbstractSheetWriter<T[]> {
 			writeRow(book, sheet, row, data);
 		}
 
-		for (ColumnConfiguration config : configs) {
-			if (!config.getDisplay()) {
-				hideColumn(sheet, config.getColumnIndex());
-			}
-		}
-
-		if (firstDataRowNum > sheet.getLastRowNum()) {
-			// no data
-			return;
-		}
-
-		for (ColumnConfiguration config : configs) {
-			List<ColumnConstraint> constraints = config.getConstraints();
-			for (ColumnConstraint constraint : constraints) {
-				if (constraint instanceof RangeColumnConstraint) {
-					// only support single
-					if (((RangeColumnConstraint) constraint).isAllowMultiple()) break;
-					
-					XSSFDataValidationHelper dvHelper = new XSSFDataValidationHelper((XSSFSheet) sheet);
-					XSSFDataValidationConstraint dvConstraint = (XSSFDataValidationConstraint)
-					    dvHelper.createExplicitListConstraint(((RangeColumnConstraint) constraint).getPickList());
-
-					CellRangeAddressList addressList = new CellRangeAddressList(firstDataRowNum,  sheet.getLastRowNum(), config.getColumnIndex(), config.getColumnIndex());
-					XSSFDataValidation validation =(XSSFDataValidation)dvHelper.createValidation(dvConstraint, addressList);
-
-					// Display pick list when user click the cell.
-					validation.setSuppressDropDownArrow(true);
-
-					// Note this extra method call. If this method call is
-					// omitted, or if the
-					// boolean value false is passed, then Excel will not
-					// validate the value the
-					// user enters into the cell.
-					validation.setShowErrorBox(((RangeColumnConstraint) constraint).getMustInRange());
-					sheet.addValidationData(validation);
-					break;
-				}
-
-				if (constraint instanceof IntegerRangeColumnConstraint) {
-					IntegerRangeColumnConstraint iconstraint = (IntegerRangeColumnConstraint) constraint;
-					XSSFDataValidationHelper dvHelper = new XSSFDataValidationHelper((XSSFSheet) sheet);
-					XSSFDataValidationConstraint dvConstraint = (XSSFDataValidationConstraint) dvHelper
-							.createNumericConstraint(XSSFDataValidationConstraint.ValidationType.INTEGER,
-									XSSFDataValidationConstraint.OperatorType.BETWEEN, "=" + iconstraint.getMin(), "="
-											+ iconstraint.getMax());
-
-					CellRangeAddressList addressList = new CellRangeAddressList(firstDataRowNum, sheet.getLastRowNum(),
-							config.getColumnIndex(), config.getColumnIndex());
-					XSSFDataValidation validation = (XSSFDataValidation) dvHelper.createValidation(dvConstraint,
-							addressList);
-
-					// Display pick list when user click the cell.
-					validation.setSuppressDropDownArrow(true);
+		finishSheet(book, sheet);
+	}
 
-					// Note this extra method call. If this method call is
-					// omitted, or if the
-					// boolean value false is passed, then Excel will not
-					// validate the value the
-					// user enters into the cell.
-					validation.setShowErrorBox(true);
-					sheet.addValidationData(validation);
-					break;
-				}
-			}
+	/**
+	 * Pick list is stored in data validation itself, not in options sheet.
+	 */
+	@Override
+	protected void createRangeValidation(Workbook book, Sheet sheet, ColumnConfiguration config,
+			RangeColumnConstraint constraint) {
+		DataValidationBuilder builder = getValidationBuilder(sheet);
+		builder.addExplicitList(constraint.getPickList(), builder.getFirstRow(), builder.getLastRow(), config.getColumnIndex(),
+				constraint.getMustInRange());
+		if (builder != validationBuilder) {
+			builder.build();
 		}
-
-		adjustColumnWidth(sheet, configs);
 	}
 
 }
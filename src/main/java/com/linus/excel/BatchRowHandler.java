@@ -0,0 +1,68 @@
+package com.linus.excel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collect valid rows into batches of fixed size, for example to insert them into database in batches while reading. 
+ * The last batch may be smaller, it's handled when sheet ends. Validation errors are collected into violations.
+ * 
+ * @param <T> Row type.
+ * @author lyan2
+ */
+public abstract class BatchRowHandler<T> implements RowHandler<T> {
+	
+	private final int batchSize;
+	private final Set<InvalidRowError<T>> violations;
+	private List<T> batch;
+	
+	/**
+	 * @param batchSize Max number of rows in a batch.
+	 * @param violations Validation errors will be stored here, it can be null.
+	 */
+	public BatchRowHandler(int batchSize, Set<InvalidRowError<T>> violations) {
+		if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+		
+		this.batchSize = batchSize;
+		this.violations = violations;
+		this.batch = new ArrayList<T>(batchSize);
+	}
+	
+	/**
+	 * Handle a full batch, or the last batch.
+	 * @param batch Rows in batch, the list is not reused after this call.
+	 * @return false to stop reading.
+	 */
+	protected abstract boolean handleBatch(List<T> batch);
+
+	@Override
+	public boolean handleRow(int rowIndex, T value, Set<InvalidRowError<T>> errors) {
+		if (errors != null && !errors.isEmpty()) {
+			if (violations != null) {
+				violations.addAll(errors);
+			}
+			return true;
+		}
+		
+		batch.add(value);
+		if (batch.size() >= batchSize) {
+			return flush();
+		}
+		
+		return true;
+	}
+
+	@Override
+	public void endSheet() {
+		flush();
+	}
+	
+	private boolean flush() {
+		if (batch.isEmpty()) return true;
+		
+		List<T> full = batch;
+		batch = new ArrayList<T>(batchSize);
+		return handleBatch(full);
+	}
+}
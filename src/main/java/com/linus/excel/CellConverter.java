@@ -0,0 +1,23 @@
+package com.linus.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Convert a cell into value of a column's type. Converters are resolved once per column by {@link CellConverters}, so
+ * converting a cell doesn't need to check the target type again.
+ * <p>
+ * Converters can be shared by readers and threads. Most are stateless, converters of date columns from text keep a
+ * {@link com.linus.date.DateParser} per column which learns the format of its text. The learned format only decides
+ * which format is tried first, so a value converted is the same whatever is learned, and by which thread.
+ *
+ * @author lyan2
+ */
+public interface CellConverter {
+
+	/**
+	 * @param cell
+	 * @return Converted value, or null if cell is null, blank, error or can't be converted into target type.
+	 */
+	public Object convert(Cell cell);
+
+}
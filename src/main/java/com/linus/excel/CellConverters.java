@@ -0,0 +1,239 @@
+package com.linus.excel;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import com.linus.date.DateParser;
+import com.linus.date.DateUtil;
+import com.linus.enums.EnumResolver;
+
+/**
+ * Resolve cell converters by target type. The type checks of {@link AbstractSheetReader#readCell(Cell, Class)} are done
+ * once here, each cell type gets a converter for the target type, so converting a cell only switches on its cell type.
+ *
+ * @author lyan2
+ */
+public final class CellConverters {
+
+	/**
+	 * Same as {@link AbstractSheetReader#readCell(Cell)}, return raw cell value.
+	 */
+	private static final CellConverter RAW = new CellConverter() {
+		@Override
+		public Object convert(Cell cell) {
+			if (cell == null) return null;
+
+			switch (cell.getCellType()) {
+			case NUMERIC:
+				return cell.getNumericCellValue();
+			case STRING:
+				return cell.getStringCellValue();
+			case BOOLEAN:
+				return cell.getBooleanCellValue();
+			case FORMULA:
+				return cell.getCellFormula();
+			default:
+				return null;
+			}
+		}
+	};
+
+	private static final NumberConverter NULL_NUMBER = (cell, value) -> null;
+	private static final TextConverter NULL_TEXT = text -> null;
+
+	private CellConverters() {
+	}
+
+	/**
+	 * @return Converter returns raw cell value: Double, String, Boolean, formula or null.
+	 */
+	public static CellConverter raw() {
+		return RAW;
+	}
+
+	/**
+	 * Resolve converter which converts cells into specified type value.
+	 * @param type Target type, raw converter is returned if it's null.
+	 * @return
+	 */
+	public static CellConverter forType(Class<?> type) {
+		if (type == null) return RAW;
+
+		return new TypedCellConverter(numberConverter(type), textConverter(type), Boolean.class.isAssignableFrom(type));
+	}
+
+	/**
+	 * Remove scientific notation. Integral values are formatted without DecimalFormat.
+	 * @param value
+	 * @return
+	 */
+	public static String formatNumber(double value) {
+		// -0.0 is formatted as "-0"
+		if (value == (long) value && Math.abs(value) < 1e15 && (value != 0 || Double.doubleToRawLongBits(value) == 0)) {
+			return Long.toString((long) value);
+		}
+
+		return new DecimalFormat("0").format(value);
+	}
+
+	private static NumberConverter numberConverter(Class<?> type) {
+		// CellType of cell which contains date is NUMERIC, serial date is converted directly if date windowing is known
+		if (Time.class.isAssignableFrom(type)) {
+			return serialDateConverter(SerialDates::toTime, cell -> {
+				Date date = cell.getDateCellValue();
+				return date == null ? null : DateUtil.resolveTime(date);
+			});
+		} else if (Date.class.isAssignableFrom(type)) {
+			return serialDateConverter(SerialDates::toDate, Cell::getDateCellValue);
+		} else if (Calendar.class.isAssignableFrom(type)) {
+			return (cell, value) -> {
+				Date date = cell.getDateCellValue();
+				return date == null ? null : new Calendar.Builder().setInstant(date).build();
+			};
+		} else if (LocalDateTime.class == type) {
+			return serialDateConverter(SerialDates::toLocalDateTime, null);
+		} else if (LocalDate.class == type) {
+			return serialDateConverter(SerialDates::toLocalDate, null);
+		} else if (LocalTime.class == type) {
+			return serialDateConverter(SerialDates::toLocalTime, null);
+		} else if (String.class.isAssignableFrom(type)) {
+			return (cell, value) -> formatNumber(value);
+		} else if (Integer.class == type || int.class == type) {
+			return (cell, value) -> (int) value;
+		} else if (Long.class == type || long.class == type) {
+			return (cell, value) -> (long) value;
+		} else if (Double.class == type || double.class == type) {
+			return (cell, value) -> value;
+		} else if (Float.class == type || float.class == type) {
+			return (cell, value) -> (float) value;
+		} else if (Short.class == type || short.class == type) {
+			return (cell, value) -> (short) value;
+		} else if (Byte.class == type || byte.class == type) {
+			return (cell, value) -> (byte) value;
+		} else if (BigInteger.class.isAssignableFrom(type)) {
+			return (cell, value) -> BigDecimal.valueOf(value).toBigInteger();
+		} else if (BigDecimal.class.isAssignableFrom(type)) {
+			return (cell, value) -> BigDecimal.valueOf(value);
+		} else if (Boolean.class == type || boolean.class == type) {
+			return (cell, value) -> (int) value == 1;
+		}
+
+		return NULL_NUMBER;
+	}
+
+	/**
+	 * @param converter Convert serial date.
+	 * @param fallback Convert cell of unknown date windowing, null to assume 1900 date windowing.
+	 */
+	private static NumberConverter serialDateConverter(SerialDateConverter converter, CellConverter fallback) {
+		return (cell, value) -> {
+			Boolean date1904 = SerialDates.isDate1904(cell);
+			if (date1904 == null && fallback != null) return fallback.convert(cell);
+
+			return converter.convert(value, date1904 != null && date1904);
+		};
+	}
+
+	private static TextConverter textConverter(Class<?> type) {
+		if (String.class.isAssignableFrom(type)) {
+			return text -> text;
+		} else if (Boolean.class.isAssignableFrom(type)) {
+			return text -> "yes".equalsIgnoreCase(text) || "true".equalsIgnoreCase(text);
+		} else if (Time.class.isAssignableFrom(type)) {
+			return text -> DateUtil.parseTime(text);
+		} else if (Date.class.isAssignableFrom(type)) {
+			// a converter is resolved for each column, so is the format learned
+			DateParser parser = new DateParser();
+			return text -> parser.parse(text);
+		} else if (Calendar.class.isAssignableFrom(type)) {
+			DateParser parser = new DateParser();
+			return text -> {
+				Date date = parser.parse(text);
+				return date == null ? null : new Calendar.Builder().setInstant(date).build();
+			};
+		} else if (LocalDateTime.class == type || LocalDate.class == type) {
+			DateParser parser = new DateParser();
+			return text -> {
+				Date date = parser.parse(text);
+				if (date == null) return null;
+
+				LocalDateTime time = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+				return LocalDate.class == type ? time.toLocalDate() : time;
+			};
+		} else if (LocalTime.class == type) {
+			return text -> {
+				Time time = DateUtil.parseTime(text);
+				return time == null ? null : time.toLocalTime();
+			};
+		} else if (Integer.class == type) {
+			return text -> Double.valueOf(text).intValue();
+		} else if (Long.class == type) {
+			return text -> Double.valueOf(text).longValue();
+		} else if (Double.class == type) {
+			return text -> Double.valueOf(text);
+		} else if (Float.class == type) {
+			return text -> Double.valueOf(text).floatValue();
+		} else if (Short.class == type) {
+			return text -> Double.valueOf(text).shortValue();
+		} else if (Byte.class == type) {
+			return text -> Double.valueOf(text).byteValue();
+		} else if (type.isEnum()) {
+			return text -> EnumResolver.resolve(type, text);
+		}
+
+		return NULL_TEXT;
+	}
+
+	private interface NumberConverter {
+		public Object convert(Cell cell, double value);
+	}
+
+	private interface SerialDateConverter {
+		public Object convert(double serial, boolean date1904);
+	}
+
+	private interface TextConverter {
+		public Object convert(String text);
+	}
+
+	private static final class TypedCellConverter implements CellConverter {
+		private final NumberConverter numberConverter;
+		private final TextConverter textConverter;
+		private final boolean keepBoolean;
+
+		private TypedCellConverter(NumberConverter numberConverter, TextConverter textConverter, boolean keepBoolean) {
+			this.numberConverter = numberConverter;
+			this.textConverter = textConverter;
+			this.keepBoolean = keepBoolean;
+		}
+
+		@Override
+		public Object convert(Cell cell) {
+			if (cell == null) return null;
+
+			switch (cell.getCellType()) {
+			case NUMERIC:
+				return numberConverter.convert(cell, cell.getNumericCellValue());
+			case STRING:
+				return textConverter.convert(cell.getStringCellValue());
+			case BOOLEAN:
+				boolean value = cell.getBooleanCellValue();
+				return keepBoolean ? Boolean.valueOf(value) : String.valueOf(value);
+			case FORMULA:
+				return cell.getCellFormula();
+			default:
+				return null;
+			}
+		}
+	}
+}
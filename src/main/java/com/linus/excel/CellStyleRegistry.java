@@ -0,0 +1,247 @@
+package com.linus.excel;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Intern cell styles, fonts and data formats of a workbook, so each distinct style is created only once no matter how
+ * many cells, sheets or writers use it. A workbook can have about 64000 styles at most.
+ * <p>
+ * Styles returned are shared, don't change them. Only style indexes are cached, so the registry doesn't keep workbook
+ * alive. Like the workbook, a registry must not be used by multiple threads at the same time.
+ *
+ * @author lyan2
+ */
+public class CellStyleRegistry {
+
+	private static final Map<Workbook, CellStyleRegistry> registries = new WeakHashMap<Workbook, CellStyleRegistry>();
+
+	private final WeakReference<Workbook> book;
+
+	private final Map<String, Short> formats = new HashMap<String, Short>();
+	private final Map<FontKey, Integer> fonts = new HashMap<FontKey, Integer>();
+	private final Map<StyleKey, Integer> styles = new HashMap<StyleKey, Integer>();
+
+	/**
+	 * Derived styles, key is made of base style index, alignment and data format.
+	 */
+	private final Map<Long, Integer> derivedStyles = new HashMap<Long, Integer>();
+
+	private CellStyleRegistry(Workbook book) {
+		this.book = new WeakReference<Workbook>(book);
+	}
+
+	/**
+	 * @param book
+	 * @return The registry of workbook, it's created on first call.
+	 */
+	public static CellStyleRegistry forWorkbook(Workbook book) {
+		synchronized (registries) {
+			CellStyleRegistry registry = registries.get(book);
+			if (registry == null) {
+				registry = new CellStyleRegistry(book);
+				registries.put(book, registry);
+			}
+			return registry;
+		}
+	}
+
+	/**
+	 * @param format Data format string, e.g. "yyyy-MM-dd".
+	 * @return Index of data format.
+	 */
+	public short getDataFormat(String format) {
+		Short index = formats.get(format);
+		if (index == null) {
+			index = getBook().createDataFormat().getFormat(format);
+			formats.put(format, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Get a font, it's created if workbook doesn't have one created by this registry.
+	 * @param name Font name, e.g. "Arial".
+	 * @param heightInPoints
+	 * @param bold
+	 * @return
+	 */
+	public Font getFont(String name, short heightInPoints, boolean bold) {
+		FontKey key = new FontKey(name, heightInPoints, bold);
+		Integer index = fonts.get(key);
+		if (index != null) return getBook().getFontAt(index);
+
+		Font font = getBook().createFont();
+		font.setFontName(name);
+		font.setFontHeightInPoints(heightInPoints);
+		font.setBold(bold);
+		fonts.put(key, font.getIndexAsInt());
+		return font;
+	}
+
+	/**
+	 * Get a style with specified attributes, others are default.
+	 * @param font null for default font.
+	 * @param alignment
+	 * @param verticalAlignment
+	 * @param dataFormat null for "General".
+	 * @param locked
+	 * @param wrapText
+	 * @param fillColor Fill foreground color, see {@link IndexedColors}.
+	 * @param fillPattern
+	 * @return
+	 */
+	public CellStyle getCellStyle(Font font, HorizontalAlignment alignment, VerticalAlignment verticalAlignment,
+			String dataFormat, boolean locked, boolean wrapText, short fillColor, FillPatternType fillPattern) {
+		int fontIndex = font == null ? 0 : font.getIndexAsInt();
+		short format = dataFormat == null ? 0 : getDataFormat(dataFormat);
+		StyleKey key = new StyleKey(fontIndex, alignment, verticalAlignment, format, locked, wrapText, fillColor, fillPattern);
+
+		Integer index = styles.get(key);
+		if (index != null) return getBook().getCellStyleAt(index);
+
+		CellStyle style = getBook().createCellStyle();
+		if (font != null) style.setFont(font);
+		style.setAlignment(alignment);
+		style.setVerticalAlignment(verticalAlignment);
+		style.setDataFormat(format);
+		style.setLocked(locked);
+		style.setWrapText(wrapText);
+		if (fillPattern != FillPatternType.NO_FILL) {
+			style.setFillForegroundColor(fillColor);
+			style.setFillPattern(fillPattern);
+		}
+		styles.put(key, toIndex(style));
+		return style;
+	}
+
+	/**
+	 * Get a style same as data cells' default style: unlocked if writable, wrap text.
+	 * @param font
+	 * @param locked
+	 * @return
+	 */
+	public CellStyle getCellStyle(Font font, boolean locked) {
+		return getCellStyle(font, HorizontalAlignment.GENERAL, VerticalAlignment.BOTTOM, null, locked, true,
+				IndexedColors.AUTOMATIC.getIndex(), FillPatternType.NO_FILL);
+	}
+
+	/**
+	 * Get a style which is copied from base style with different alignment and/or data format.
+	 * @param base A style of this registry's workbook.
+	 * @param alignment null to keep base style's.
+	 * @param dataFormat null to keep base style's.
+	 * @return Base style itself if nothing is changed.
+	 */
+	public CellStyle derive(CellStyle base, HorizontalAlignment alignment, String dataFormat) {
+		short format = dataFormat == null ? base.getDataFormat() : getDataFormat(dataFormat);
+		if ((alignment == null || alignment == base.getAlignment()) && format == base.getDataFormat()) {
+			return base;
+		}
+
+		long key = ((long) toIndex(base) << 32)
+				| ((long) (alignment == null ? 0 : alignment.ordinal() + 1) << 20)
+				| ((format & 0xFFFF) + 1);
+		Integer index = derivedStyles.get(key);
+		if (index != null) return getBook().getCellStyleAt(index);
+
+		CellStyle style = getBook().createCellStyle();
+		style.cloneStyleFrom(base);
+		if (alignment != null) style.setAlignment(alignment);
+		style.setDataFormat(format);
+		derivedStyles.put(key, toIndex(style));
+		return style;
+	}
+
+	/**
+	 * @return Number of styles created by this registry.
+	 */
+	public int size() {
+		return styles.size() + derivedStyles.size();
+	}
+
+	private Workbook getBook() {
+		Workbook workbook = book.get();
+		if (workbook == null) throw new IllegalStateException("Workbook has been garbage collected.");
+		return workbook;
+	}
+
+	private static int toIndex(CellStyle style) {
+		// XSSF style index may be greater than Short.MAX_VALUE
+		return style.getIndex() & 0xFFFF;
+	}
+
+	private static final class FontKey {
+		private final String name;
+		private final short height;
+		private final boolean bold;
+
+		private FontKey(String name, short height, boolean bold) {
+			this.name = name;
+			this.height = height;
+			this.bold = bold;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(name, height, bold);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof FontKey)) return false;
+
+			FontKey other = (FontKey) obj;
+			return height == other.height && bold == other.bold && Objects.equals(name, other.name);
+		}
+	}
+
+	private static final class StyleKey {
+		private final int font;
+		private final HorizontalAlignment alignment;
+		private final VerticalAlignment verticalAlignment;
+		private final short format;
+		private final boolean locked;
+		private final boolean wrapText;
+		private final short fillColor;
+		private final FillPatternType fillPattern;
+
+		private StyleKey(int font, HorizontalAlignment alignment, VerticalAlignment verticalAlignment, short format,
+				boolean locked, boolean wrapText, short fillColor, FillPatternType fillPattern) {
+			this.font = font;
+			this.alignment = alignment;
+			this.verticalAlignment = verticalAlignment;
+			this.format = format;
+			this.locked = locked;
+			this.wrapText = wrapText;
+			this.fillColor = fillColor;
+			this.fillPattern = fillPattern;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(font, alignment, verticalAlignment, format, locked, wrapText, fillColor, fillPattern);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof StyleKey)) return false;
+
+			StyleKey other = (StyleKey) obj;
+			return font == other.font && alignment == other.alignment && verticalAlignment == other.verticalAlignment
+					&& format == other.format && locked == other.locked && wrapText == other.wrapText
+					&& fillColor == other.fillColor && fillPattern == other.fillPattern;
+		}
+	}
+}
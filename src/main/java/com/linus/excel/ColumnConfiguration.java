@@ -4,6 +4,7 @@ import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.linus.excel.util.PropertyAccessor;
 import com.linus.excel.validation.ColumnConstraint;
 
 /**
@@ -41,10 +42,20 @@ public class ColumnConfiguration {
 	 */
 	private PropertyDescriptor propertyDescriptor;
 	
+	/**
+	 * Compiled getter and setter of the property, it's created from propertyDescriptor on first use.
+	 */
+	private PropertyAccessor propertyAccessor;
+	
 	private String rawType;
 	
 	private Class<?> type;
 	
+	/**
+	 * Converter of cells into the column's type, it's resolved on first use.
+	 */
+	private CellConverter cellConverter;
+	
 	/**
 	 * sample data
 	 */
@@ -57,6 +68,88 @@ public class ColumnConfiguration {
 	 */
 	private Boolean display = true;
 	
+	public ColumnConfiguration() {
+	}
+	
+	/**
+	 * Copy a configuration, constraints are copied into a new list but not cloned.
+	 * @param other
+	 */
+	public ColumnConfiguration(ColumnConfiguration other) {
+		this.key = other.key;
+		this.title = other.title;
+		this.label = other.label;
+		this.length = other.length;
+		this.columnIndex = other.columnIndex;
+		this.writable = other.writable;
+		this.propertyDescriptor = other.propertyDescriptor;
+		this.propertyAccessor = other.propertyAccessor;
+		this.rawType = other.rawType;
+		this.type = other.type;
+		this.cellConverter = other.cellConverter;
+		this.sample = other.sample;
+		this.constraints = new ArrayList<ColumnConstraint>(other.constraints);
+		this.display = other.display;
+	}
+	
+	/**
+	 * Get configurations to read a sheet with. Configurations having constraints with state, like unique constraint, are
+	 * copied with constraints of {@link ColumnConstraint#forSession()}, so each read has its own state.
+	 * @param configs
+	 * @return configs itself if no constraint has state.
+	 */
+	public static List<ColumnConfiguration> forSession(List<ColumnConfiguration> configs) {
+		if (configs == null) return null;
+		
+		List<ColumnConfiguration> session = null;
+		for (int i = 0, size = configs.size(); i < size; i++) {
+			ColumnConfiguration config = configs.get(i);
+			List<ColumnConstraint> constraints = config.getConstraints();
+			if (constraints == null) continue;
+			
+			ColumnConfiguration copy = null;
+			for (int j = 0; j < constraints.size(); j++) {
+				ColumnConstraint constraint = constraints.get(j);
+				ColumnConstraint sessionConstraint = constraint.forSession();
+				if (sessionConstraint == constraint) continue;
+				
+				if (copy == null) {
+					copy = new ColumnConfiguration(config);
+					if (session == null) {
+						session = new ArrayList<ColumnConfiguration>(configs);
+					}
+					session.set(i, copy);
+				}
+				copy.getConstraints().set(j, sessionConstraint);
+			}
+		}
+		
+		return session == null ? configs : session;
+	}
+	
+	/**
+	 * End a read session: constraints copied by {@link #forSession(List)} release their state, e.g. temporary files of
+	 * unique values. Constraints shared with configs are untouched.
+	 * @param session Configurations returned by {@link #forSession(List)}.
+	 * @param configs Configurations session is copied from.
+	 */
+	public static void endSession(List<ColumnConfiguration> session, List<ColumnConfiguration> configs) {
+		if (session == null || session == configs) return;
+		
+		for (int i = 0, size = session.size(); i < size; i++) {
+			ColumnConfiguration copy = session.get(i);
+			ColumnConfiguration config = configs.get(i);
+			if (copy == config) continue;
+			
+			List<ColumnConstraint> constraints = copy.getConstraints();
+			for (int j = 0; j < constraints.size(); j++) {
+				if (constraints.get(j) != config.getConstraints().get(j)) {
+					constraints.get(j).endSession();
+				}
+			}
+		}
+	}
+	
 	public String getTitle() {
 		return title;
 	}
@@ -81,6 +174,19 @@ public class ColumnConfiguration {
 	}
 	public void setPropertyDescriptor(PropertyDescriptor propertyDescriptor) {
 		this.propertyDescriptor = propertyDescriptor;
+		this.propertyAccessor = null;
+		this.cellConverter = null;
+	}
+	/**
+	 * @return Compiled accessor of the property, null if there isn't a property descriptor.
+	 */
+	public PropertyAccessor getPropertyAccessor() {
+		PropertyAccessor accessor = propertyAccessor;
+		if (accessor == null && propertyDescriptor != null) {
+			accessor = PropertyAccessor.of(propertyDescriptor);
+			propertyAccessor = accessor;
+		}
+		return accessor;
 	}
 
 
@@ -116,6 +222,25 @@ public class ColumnConfiguration {
 	}
 	public void setType(Class<?> type) {
 		this.type = type;
+		this.cellConverter = null;
+	}
+	/**
+	 * @return Converter of cells into type, or into property type if type is not set. 
+	 */
+	public CellConverter getCellConverter() {
+		CellConverter converter = cellConverter;
+		if (converter == null) {
+			Class<?> target = type;
+			if (target == null && propertyDescriptor != null) {
+				target = propertyDescriptor.getPropertyType();
+			}
+			converter = CellConverters.forType(target);
+			cellConverter = converter;
+		}
+		return converter;
+	}
+	public void setCellConverter(CellConverter cellConverter) {
+		this.cellConverter = cellConverter;
 	}
 	public String getSample() {
 		return sample;
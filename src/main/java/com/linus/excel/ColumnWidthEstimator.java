@@ -0,0 +1,231 @@
+package com.linus.excel;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+/**
+ * Estimate column widths from cells as they are written, instead of {@link Sheet#autoSizeColumn(int)} which scans all
+ * cells of a column again and measures text with AWT fonts. Width of text is counted by character class: narrow
+ * punctuation, normal, wide latin like upper case, and double width East Asian characters, scaled by font size.
+ * <p>
+ * With sampling, only cells of the first N rows measured are counted. An estimator is for one sheet, and like the
+ * workbook, it must not be used by multiple threads at the same time.
+ *
+ * @author lyan2
+ */
+public class ColumnWidthEstimator {
+
+	/**
+	 * Max column width of Excel, 255 characters.
+	 */
+	public static final int MAX_WIDTH = 255 * 256;
+
+	/**
+	 * Width of characters in quarters of a digit's width.
+	 */
+	private static final int ZERO = 0;
+	private static final int NARROW = 2;
+	private static final int NORMAL = 4;
+	private static final int WIDE = 5;
+	private static final int DOUBLE = 8;
+
+	/**
+	 * Height of default font, Calibri 11.
+	 */
+	private static final float DEFAULT_FONT_HEIGHT = 11f;
+
+	private final Sheet sheet;
+
+	private final int sampleRows;
+
+	private int firstRow = -1;
+
+	/**
+	 * Max width of each column in 1/256 of a character's width, 0 if no cell is measured.
+	 */
+	private int[] widths = new int[16];
+
+	/**
+	 * Scale and date format width of styles by style index, computed on first use.
+	 */
+	private float[] styleScales = new float[0];
+	private int[] styleDateWidths = new int[0];
+
+	/**
+	 * @param sheet
+	 */
+	public ColumnWidthEstimator(Sheet sheet) {
+		this(sheet, 0);
+	}
+
+	/**
+	 * @param sheet
+	 * @param sampleRows Number of rows measured from the first one, 0 means all rows.
+	 */
+	public ColumnWidthEstimator(Sheet sheet, int sampleRows) {
+		this.sheet = sheet;
+		this.sampleRows = sampleRows;
+	}
+
+	public Sheet getSheet() {
+		return sheet;
+	}
+
+	/**
+	 * Count width of cell into its column, formula and blank cells are ignored.
+	 * @param cell
+	 */
+	public void measure(Cell cell) {
+		if (cell == null) return;
+
+		int rowIndex = cell.getRowIndex();
+		if (firstRow < 0) firstRow = rowIndex;
+		if (sampleRows > 0 && rowIndex - firstRow >= sampleRows) return;
+
+		int units;
+		switch (cell.getCellType()) {
+		case STRING:
+			units = getUnits(cell.getStringCellValue());
+			break;
+		case NUMERIC:
+			int dateWidth = getDateWidth(cell.getCellStyle());
+			units = dateWidth >= 0 ? dateWidth : getUnits(NumberToTextConverter.toText(cell.getNumericCellValue()));
+			break;
+		case BOOLEAN:
+			units = getUnits(cell.getBooleanCellValue() ? "TRUE" : "FALSE");
+			break;
+		default:
+			return;
+		}
+
+		// a character of padding, as autoSizeColumn does
+		int width = (int) Math.min(MAX_WIDTH, (units * getScale(cell.getCellStyle()) / NORMAL + 1) * 256);
+		int column = cell.getColumnIndex();
+		if (column >= widths.length) widths = Arrays.copyOf(widths, Math.max(widths.length * 2, column + 1));
+		if (width > widths[column]) widths[column] = width;
+	}
+
+	/**
+	 * Count a known width into column, e.g. current width of a sheet which rows are appended to, so the column isn't
+	 * narrowed to fit only the new rows.
+	 * @param column
+	 * @param width Width in 1/256 of a character's width.
+	 */
+	public void include(int column, int width) {
+		if (column >= widths.length) widths = Arrays.copyOf(widths, Math.max(widths.length * 2, column + 1));
+		if (width > widths[column]) widths[column] = Math.min(width, MAX_WIDTH);
+	}
+
+	/**
+	 * @param column
+	 * @return Width in 1/256 of a character's width, -1 if no cell of column is measured.
+	 */
+	public int getColumnWidth(int column) {
+		return column < widths.length && widths[column] > 0 ? widths[column] : -1;
+	}
+
+	/**
+	 * @param text
+	 * @return Width of the longest line in quarters of a digit's width.
+	 */
+	static int getUnits(String text) {
+		int max = 0;
+		int units = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\n') {
+				max = Math.max(max, units);
+				units = 0;
+			} else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+				units += getUnits(Character.toCodePoint(c, text.charAt(++i)));
+			} else {
+				units += getUnits(c);
+			}
+		}
+		return Math.max(max, units);
+	}
+
+	private static int getUnits(int c) {
+		if (c < 0x80) {
+			if (c < 0x20) return ZERO;
+			if (c == 'i' || c == 'j' || c == 'l' || c == 'I' || c == 'f' || c == 't' || c == 'r') return NARROW;
+			if (c == ' ' || c == '.' || c == ',' || c == ':' || c == ';' || c == '\'' || c == '|' || c == '!') return NARROW;
+			if (c >= 'A' && c <= 'Z' || c == 'm' || c == 'w' || c == '@' || c == '%') return WIDE;
+			return NORMAL;
+		}
+
+		if (isDoubleWidth(c)) return DOUBLE;
+
+		switch (Character.getType(c)) {
+		case Character.NON_SPACING_MARK:
+		case Character.ENCLOSING_MARK:
+		case Character.FORMAT:
+		case Character.CONTROL:
+			return ZERO;
+		case Character.UPPERCASE_LETTER:
+			return WIDE;
+		default:
+			return NORMAL;
+		}
+	}
+
+	/**
+	 * East Asian wide and full width characters, and emoji.
+	 */
+	private static boolean isDoubleWidth(int c) {
+		return c >= 0x1100 && c <= 0x115F
+				|| c >= 0x2E80 && c <= 0xA4CF && c != 0x303F
+				|| c >= 0xAC00 && c <= 0xD7A3
+				|| c >= 0xF900 && c <= 0xFAFF
+				|| c >= 0xFE30 && c <= 0xFE4F
+				|| c >= 0xFF00 && c <= 0xFF60
+				|| c >= 0xFFE0 && c <= 0xFFE6
+				|| c >= 0x1F300 && c <= 0x1F64F
+				|| c >= 0x1F900 && c <= 0x1F9FF
+				|| c >= 0x20000 && c <= 0x3FFFD;
+	}
+
+	private float getScale(CellStyle style) {
+		int index = ensureStyle(style);
+		return styleScales[index];
+	}
+
+	/**
+	 * @return Width of date format of style, -1 if it isn't a date format.
+	 */
+	private int getDateWidth(CellStyle style) {
+		int index = ensureStyle(style);
+		return styleDateWidths[index];
+	}
+
+	private int ensureStyle(CellStyle style) {
+		int index = style.getIndex() & 0xFFFF;
+		if (index >= styleScales.length) {
+			int length = Math.max(styleScales.length * 2, index + 1);
+			int oldLength = styleScales.length;
+			styleScales = Arrays.copyOf(styleScales, length);
+			styleDateWidths = Arrays.copyOf(styleDateWidths, length);
+			Arrays.fill(styleDateWidths, oldLength, length, Integer.MIN_VALUE);
+		}
+
+		if (styleDateWidths[index] == Integer.MIN_VALUE) {
+			Workbook book = sheet.getWorkbook();
+			Font font = book.getFontAt(style.getFontIndexAsInt());
+			float scale = font.getFontHeightInPoints() / DEFAULT_FONT_HEIGHT;
+			styleScales[index] = font.getBold() ? scale * 1.1f : scale;
+
+			String format = style.getDataFormatString();
+			// a date is displayed as digits of its format
+			styleDateWidths[index] = format != null && DateUtil.isADateFormat(style.getDataFormat(), format)
+					? format.length() * NORMAL : -1;
+		}
+		return index;
+	}
+}
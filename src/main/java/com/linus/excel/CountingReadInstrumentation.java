@@ -0,0 +1,78 @@
+package com.linus.excel;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count rows, cells, invalid rows and conversion failures, and sum up time of each phase. It can be shared by readers in
+ * different threads, and be polled by a metrics system.
+ *
+ * @author lyan2
+ */
+public class CountingReadInstrumentation implements ReadInstrumentation {
+
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder cells = new LongAdder();
+	private final LongAdder invalidRows = new LongAdder();
+	private final LongAdder conversionFailures = new LongAdder();
+	private final LongAdder readNanos = new LongAdder();
+	private final LongAdder validateNanos = new LongAdder();
+
+	@Override
+	public void rowRead(int rowIndex, int cells, long nanos) {
+		this.rows.increment();
+		this.cells.add(cells);
+		this.readNanos.add(nanos);
+	}
+
+	@Override
+	public void rowValidated(int rowIndex, boolean valid, long nanos) {
+		if (!valid) {
+			this.invalidRows.increment();
+		}
+		this.validateNanos.add(nanos);
+	}
+
+	@Override
+	public void conversionFailed(int rowIndex, ColumnConfiguration column, Exception cause) {
+		this.conversionFailures.increment();
+	}
+
+	public long getRows() {
+		return rows.sum();
+	}
+
+	public long getCells() {
+		return cells.sum();
+	}
+
+	public long getInvalidRows() {
+		return invalidRows.sum();
+	}
+
+	public long getConversionFailures() {
+		return conversionFailures.sum();
+	}
+
+	/**
+	 * @return Total time spent on converting rows, in nanoseconds.
+	 */
+	public long getReadNanos() {
+		return readNanos.sum();
+	}
+
+	/**
+	 * @return Total time spent on validating rows, in nanoseconds.
+	 */
+	public long getValidateNanos() {
+		return validateNanos.sum();
+	}
+
+	public void reset() {
+		rows.reset();
+		cells.reset();
+		invalidRows.reset();
+		conversionFailures.reset();
+		readNanos.reset();
+		validateNanos.reset();
+	}
+}
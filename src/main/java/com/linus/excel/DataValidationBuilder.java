@@ -0,0 +1,269 @@
+package com.linus.excel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.DataValidationConstraint;
+import org.apache.poi.ss.usermodel.DataValidationConstraint.OperatorType;
+import org.apache.poi.ss.usermodel.DataValidationConstraint.ValidationType;
+import org.apache.poi.ss.usermodel.DataValidationHelper;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+/**
+ * Collect data validations of a sheet and add them at once by {@link #build()}. Validations of the same constraint
+ * share one data validation, and ranges of adjacent columns with the same rows are merged into one, so a sheet with
+ * many columns of the same dropdown gets a single validation instead of one per column.
+ * <p>
+ * A cell has only one data validation, so rows of a column which already have one, e.g. rows written before a sheet is
+ * appended to, are skipped.
+ *
+ * @author lyan2
+ */
+public class DataValidationBuilder {
+
+	private static final int FORMULA_LIST = 0;
+	private static final int EXPLICIT_LIST = 1;
+	private static final int INTEGER_RANGE = 2;
+	private static final int DECIMAL_RANGE = 3;
+
+	private static final Comparator<CellRangeAddress> RANGE_ORDER = Comparator
+			.comparingInt(CellRangeAddress::getFirstRow).thenComparingInt(CellRangeAddress::getLastRow)
+			.thenComparingInt(CellRangeAddress::getFirstColumn);
+
+	private final Sheet sheet;
+
+	private final int firstRow;
+
+	private final int lastRow;
+
+	private final Map<Key, List<CellRangeAddress>> validations = new LinkedHashMap<Key, List<CellRangeAddress>>();
+
+	/**
+	 * Ranges of validations already in sheet, loaded on first use.
+	 */
+	private List<CellRangeAddress> existing;
+
+	/**
+	 * @param sheet
+	 * @param firstRow First row of data, validations of columns cover rows from it.
+	 * @param lastRow Last row of data.
+	 */
+	public DataValidationBuilder(Sheet sheet, int firstRow, int lastRow) {
+		this.sheet = sheet;
+		this.firstRow = firstRow;
+		this.lastRow = lastRow;
+	}
+
+	public Sheet getSheet() {
+		return sheet;
+	}
+
+	public int getFirstRow() {
+		return firstRow;
+	}
+
+	public int getLastRow() {
+		return lastRow;
+	}
+
+	/**
+	 * Dropdown of options referred by formula, e.g. a named range.
+	 * @param formula
+	 * @param firstRow
+	 * @param lastRow
+	 * @param column
+	 * @param showErrorBox Whether values not in options are rejected.
+	 */
+	public void addFormulaList(String formula, int firstRow, int lastRow, int column, boolean showErrorBox) {
+		add(new Key(FORMULA_LIST, formula, null, null, showErrorBox), firstRow, lastRow, column);
+	}
+
+	/**
+	 * Dropdown of options stored in the validation itself.
+	 * @param values
+	 * @param firstRow
+	 * @param lastRow
+	 * @param column
+	 * @param showErrorBox Whether values not in options are rejected.
+	 */
+	public void addExplicitList(String[] values, int firstRow, int lastRow, int column, boolean showErrorBox) {
+		add(new Key(EXPLICIT_LIST, null, null, values.clone(), showErrorBox), firstRow, lastRow, column);
+	}
+
+	/**
+	 * Only integer between min and max can be inputted.
+	 * @param min
+	 * @param max
+	 * @param firstRow
+	 * @param lastRow
+	 * @param column
+	 */
+	public void addIntegerRange(int min, int max, int firstRow, int lastRow, int column) {
+		add(new Key(INTEGER_RANGE, "=" + min, "=" + max, null, true), firstRow, lastRow, column);
+	}
+
+	/**
+	 * Only number between min and max can be inputted.
+	 * @param min
+	 * @param max
+	 * @param firstRow
+	 * @param lastRow
+	 * @param column
+	 */
+	public void addDecimalRange(double min, double max, int firstRow, int lastRow, int column) {
+		add(new Key(DECIMAL_RANGE, "=" + NumberToTextConverter.toText(min), "=" + NumberToTextConverter.toText(max), null,
+				true), firstRow, lastRow, column);
+	}
+
+	/**
+	 * Add collected validations to sheet, the builder is empty afterwards.
+	 * @return Number of data validations added.
+	 */
+	public int build() {
+		if (validations.isEmpty()) return 0;
+
+		DataValidationHelper helper = sheet.getDataValidationHelper();
+		for (Map.Entry<Key, List<CellRangeAddress>> entry : validations.entrySet()) {
+			Key key = entry.getKey();
+			DataValidationConstraint constraint;
+			switch (key.type) {
+			case FORMULA_LIST:
+				constraint = helper.createFormulaListConstraint(key.formula1);
+				break;
+			case EXPLICIT_LIST:
+				constraint = helper.createExplicitListConstraint(key.values);
+				break;
+			case INTEGER_RANGE:
+				constraint = helper.createNumericConstraint(ValidationType.INTEGER, OperatorType.BETWEEN, key.formula1,
+						key.formula2);
+				break;
+			default:
+				constraint = helper.createDecimalConstraint(OperatorType.BETWEEN, key.formula1, key.formula2);
+				break;
+			}
+
+			CellRangeAddressList addressList = new CellRangeAddressList();
+			for (CellRangeAddress range : merge(entry.getValue())) {
+				addressList.addCellRangeAddress(range);
+			}
+
+			DataValidation validation = helper.createValidation(constraint, addressList);
+			// Display pick list when user click the cell.
+			validation.setSuppressDropDownArrow(true);
+			validation.setShowErrorBox(key.showErrorBox);
+			sheet.addValidationData(validation);
+		}
+
+		int count = validations.size();
+		validations.clear();
+		existing = null;
+		return count;
+	}
+
+	private void add(Key key, int firstRow, int lastRow, int column) {
+		int row = firstRow;
+		for (CellRangeAddress covered : getExisting(column)) {
+			if (covered.getLastRow() < row) continue;
+			if (covered.getFirstRow() > lastRow) break;
+
+			if (covered.getFirstRow() > row) {
+				add(key, new CellRangeAddress(row, covered.getFirstRow() - 1, column, column));
+			}
+			row = covered.getLastRow() + 1;
+		}
+		if (row <= lastRow) {
+			add(key, new CellRangeAddress(row, lastRow, column, column));
+		}
+	}
+
+	private void add(Key key, CellRangeAddress range) {
+		List<CellRangeAddress> ranges = validations.get(key);
+		if (ranges == null) {
+			ranges = new ArrayList<CellRangeAddress>(1);
+			validations.put(key, ranges);
+		}
+		ranges.add(range);
+	}
+
+	/**
+	 * @return Ranges of validations already in sheet which cover column, in order of first row.
+	 */
+	private List<CellRangeAddress> getExisting(int column) {
+		if (existing == null) {
+			existing = new ArrayList<CellRangeAddress>();
+			for (DataValidation validation : sheet.getDataValidations()) {
+				existing.addAll(Arrays.asList(validation.getRegions().getCellRangeAddresses()));
+			}
+		}
+		if (existing.isEmpty()) return existing;
+
+		List<CellRangeAddress> ranges = new ArrayList<CellRangeAddress>();
+		for (CellRangeAddress range : existing) {
+			if (range.getFirstColumn() <= column && column <= range.getLastColumn()) ranges.add(range);
+		}
+		ranges.sort(Comparator.comparingInt(CellRangeAddress::getFirstRow));
+		return ranges;
+	}
+
+	/**
+	 * Merge ranges of the same rows and adjacent or overlapped columns.
+	 */
+	private static List<CellRangeAddress> merge(List<CellRangeAddress> ranges) {
+		if (ranges.size() == 1) return ranges;
+
+		List<CellRangeAddress> sorted = new ArrayList<CellRangeAddress>(ranges);
+		sorted.sort(RANGE_ORDER);
+
+		List<CellRangeAddress> merged = new ArrayList<CellRangeAddress>();
+		CellRangeAddress last = null;
+		for (CellRangeAddress range : sorted) {
+			if (last != null && last.getFirstRow() == range.getFirstRow() && last.getLastRow() == range.getLastRow()
+					&& range.getFirstColumn() <= last.getLastColumn() + 1) {
+				last.setLastColumn(Math.max(last.getLastColumn(), range.getLastColumn()));
+			} else {
+				last = range.copy();
+				merged.add(last);
+			}
+		}
+		return merged;
+	}
+
+	private static final class Key {
+		private final int type;
+		private final String formula1;
+		private final String formula2;
+		private final String[] values;
+		private final boolean showErrorBox;
+
+		private Key(int type, String formula1, String formula2, String[] values, boolean showErrorBox) {
+			this.type = type;
+			this.formula1 = formula1;
+			this.formula2 = formula2;
+			this.values = values;
+			this.showErrorBox = showErrorBox;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, formula1, formula2, Arrays.hashCode(values), showErrorBox);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+
+			Key other = (Key) obj;
+			return type == other.type && showErrorBox == other.showErrorBox && Objects.equals(formula1, other.formula1)
+					&& Objects.equals(formula2, other.formula2) && Arrays.equals(values, other.values);
+		}
+	}
+}
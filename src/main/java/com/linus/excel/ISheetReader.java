@@ -42,7 +42,8 @@ public interface ISheetReader<T> {
 	
 	/**
 	 * Read all rows from the first row, cells of each row should be stored in a List by the order they appears in a row.
-	 * Each row is also validated according to ColumnConfigurations. Reading will stop when a invalid row is read. 
+	 * Each row is also validated according to ColumnConfigurations. Reading will stop when a invalid row is read, unless
+	 * reader collects all errors. 
 	 * @param sheet
 	 * @param clazz
 	 * @param firstRowNum The number of the first row to read.
@@ -53,7 +54,8 @@ public interface ISheetReader<T> {
 	
 	/**
 	 * Read sheet, and each row will be represented as a JSON object.
-	 * Each row is also validated according to ColumnConfigurations. Reading will stop when a invalid row is read. 
+	 * Each row is also validated according to ColumnConfigurations. Reading will stop when a invalid row is read, unless
+	 * reader collects all errors. 
 	 * @param sheet
 	 * @param headers
 	 * @param firstRowNum The number of the first row to read.
@@ -5,8 +5,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -14,6 +12,7 @@ import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
 import org.apache.poi.ss.usermodel.Sheet;
 
 import com.linus.date.DateUtil;
+import com.linus.enums.EnumResolver;
 import com.linus.enums.ICustomEnum;
 import com.linus.excel.validation.ListValidator;
 
@@ -24,7 +23,7 @@ import com.linus.excel.validation.ListValidator;
  */
 public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 
-	private final Logger logger = Logger.getLogger(ListSheetReader.class.getName());
+	private ListValidator validator;
 	
 	public List<List<Object>> readSheet(Sheet sheet, int firstRowNum) {
 		if (sheet == null) return null;
@@ -33,8 +32,6 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 		int lastRowNum = sheet.getLastRowNum();
 		
 		for (int i = firstRowNum; i <= lastRowNum; i++) {
-			logger.log(Level.INFO,	"Beginning to read row " + i);
-			
 			List<Object> obj = readRow(sheet.getRow(i));
 			if (obj != null) {
 				list.add(obj);
@@ -58,8 +55,6 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 		ArrayList<List<Object>> list = new ArrayList<List<Object>>();
 		
 		for (int i = firstRowNum; i <= lastRowNum; i++) {
-			logger.log(Level.INFO,	"Beginning to read row " + i);
-			
 			List<Object> rowData = readRow(sheet.getRow(i), firstCellNum, lastCellNum);
 			if (rowData != null) {
 				list.add(rowData);
@@ -71,37 +66,26 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 	
 	
 	@Override
-	public List<List<Object>> readSheet(Sheet sheet,
-			List<ColumnConfiguration> configs, int firstRowNum, Set<InvalidRowError<List<Object>>> violations) {
-		
-		return readSheet(sheet, configs, firstRowNum, sheet.getLastRowNum(), violations);
+	protected Set<InvalidRowError<List<Object>>> validateRow(int rowIndex, List<Object> value, List<ColumnConfiguration> configs) {
+		return validateColumns(rowIndex, value, configs);
 	}
 	
 	@Override
-	public List<List<Object>> readSheet(Sheet sheet,
-			List<ColumnConfiguration> configs, int firstRowNum, int lastRowNum,
-			Set<InvalidRowError<List<Object>>> violations) {
-		if (sheet == null) return null;
-		
-		ArrayList<List<Object>> list = new ArrayList<List<Object>>();
-		ListValidator validator = new ListValidator();
-		
-		for (int i = firstRowNum; i < lastRowNum; i++) {
-			logger.log(Level.INFO,	"Beginning to read row " + i);
-			
-			List<Object> obj = readRow(sheet.getRow(i));
-			if (obj != null) {
-				Set<InvalidRowError<List<Object>>> errors  = validator.validate(i, obj, configs);
-				if (errors == null || errors.size() <= 0) {
-					list.add(obj);
-				} else {
-					violations.addAll(errors);
-					break;
-				}
-			}
-		}
-		
-		return list;
+	protected Set<InvalidRowError<List<Object>>> validateColumns(int rowIndex, List<Object> value, List<ColumnConfiguration> configs) {
+		return getValidator().validate(rowIndex, value, configs);
+	}
+	
+	public ListValidator getValidator() {
+		return validator == null ? validator = new ListValidator() : validator;
+	}
+
+	public void setValidator(ListValidator validator) {
+		this.validator = validator;
+	}
+	
+	@Override
+	protected int countCells(List<ColumnConfiguration> headers, Row row) {
+		return Math.max(row.getLastCellNum(), 0);
 	}
 	
 	@Override
@@ -148,9 +132,6 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 	public Object readCell(Cell cell, Class<?> type) {
 		if (cell == null) return null;
 		
-		logger.log(Level.INFO, "Cell type " + cell.getCellType()
-				+ ", property type " + type);
-		
 		switch (cell.getCellType()) {
         case BLANK: return null;
         case ERROR: return null;
@@ -213,11 +194,8 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 		if (Time.class.isAssignableFrom(type)) {
 			Date date = cell.getDateCellValue();
 			String time = timeformat.format(date);
-			logger.log(Level.INFO, "Time cell value is " + cellVal);
-			logger.log(Level.INFO, "Time cell format is " + time);
 			return Time.valueOf(time);
 		} else if (Date.class.isAssignableFrom(type)) {
-			logger.log(Level.INFO, "Date cell value is " + cellVal);
 			return cell.getDateCellValue();
 		} else if (String.class.isAssignableFrom(type)) {
 			return formatNumber(cellVal);
@@ -271,13 +249,7 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 	 * @return
 	 */
 	protected ICustomEnum resolveExcelEnum(String value, Class<ICustomEnum> type) {
-		for (ICustomEnum constant : type.getEnumConstants()) {
-			if (constant.value().equalsIgnoreCase(value)) {
-				return constant;
-			}
-		}
-		
-		return null;
+		return EnumResolver.resolve(type, value);
 	}
 	
 	/**
@@ -287,13 +259,7 @@ public class ListSheetReader extends AbstractSheetReader<List<Object>> {
 	 * @return
 	 */
 	protected <T> T resolveEnumValue(String value, Class<T> type) {
-		for (T constant : type.getEnumConstants()) {
-			if (constant.toString().equalsIgnoreCase(value)) {
-				return constant;
-			}
-		}
-		
-		return null;
+		return EnumResolver.resolve(type, value);
 	}
 	
 }
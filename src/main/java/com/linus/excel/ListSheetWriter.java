@@ -10,6 +10,7 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
 
 /**
@@ -25,8 +26,8 @@ public class ListSheetWriter extends AbstractSheetWriter<List<Object>> {
 
 	@Override
 	public void writeRow(Workbook book, Sheet sheet, Row row, List<Object> list) {
-		CellStyle cellStyle = book.createCellStyle();
-		cellStyle.setFont(defaultFont);
+		CellStyle cellStyle = styleRegistry.getCellStyle(defaultFont, HorizontalAlignment.GENERAL, VerticalAlignment.BOTTOM,
+				null, true, false, IndexedColors.AUTOMATIC.getIndex(), FillPatternType.NO_FILL);
 		
 		int column = 0;
 		for (Object value : list) {			
@@ -65,12 +66,8 @@ public class ListSheetWriter extends AbstractSheetWriter<List<Object>> {
 
 	private void createSubHead(Workbook book, Sheet sheet, List<ColumnConfiguration> configs) {
 		Row row = sheet.createRow(firstDataRowNum++);
-		CellStyle headerStyle = book.createCellStyle();
-		headerStyle.setAlignment(HorizontalAlignment.CENTER);
-		headerStyle.setFillForegroundColor(IndexedColors.LIME.getIndex());
-		headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-		headerStyle.setFont(this.defaultFont);
-		headerStyle.setWrapText(true);
+		CellStyle headerStyle = styleRegistry.getCellStyle(this.defaultFont, HorizontalAlignment.CENTER, VerticalAlignment.BOTTOM,
+				null, true, true, IndexedColors.LIME.getIndex(), FillPatternType.SOLID_FOREGROUND);
 
 		for (ColumnConfiguration config : configs) {
 			if (config != null) {
@@ -1,18 +1,14 @@
 package com.linus.excel;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
-import org.apache.poi.ss.usermodel.Sheet;
 
 import com.linus.excel.validation.MapValidator;
 
@@ -23,42 +19,24 @@ import com.linus.excel.validation.MapValidator;
  */
 public class MapSheetReader extends AbstractSheetReader<Map<String, Object>> {
 
-	private final Logger logger = Logger.getLogger(MapSheetReader.class.getName());
+	private MapValidator validator;
 	
 	@Override
-	public List<Map<String, Object>> readSheet(Sheet sheet,
-			List<ColumnConfiguration> headers, int firstRowNum,
-			Set<InvalidRowError<Map<String, Object>>> violations) {
-		if (sheet == null) return null;
-		
-		return readSheet(sheet, headers, firstRowNum, sheet.getLastRowNum(), violations);
+	protected Set<InvalidRowError<Map<String, Object>>> validateRow(int rowIndex, Map<String, Object> value, List<ColumnConfiguration> configs) {
+		return validateColumns(rowIndex, value, configs);
 	}
-
+	
 	@Override
-	public List<Map<String, Object>> readSheet(Sheet sheet,
-			List<ColumnConfiguration> configs, int firstRowNum, int lastRowNum,
-			Set<InvalidRowError<Map<String, Object>>> violations) {
-		if (sheet == null) return null;
-		
-		ArrayList<Map<String, Object>> list = new ArrayList<Map<String, Object>>();
-		MapValidator validator = new MapValidator();
-		
-		for (int i = firstRowNum; i <= lastRowNum; i++) {
-			logger.log(Level.INFO,	"Beginning to read row " + i);
-			
-			Map<String, Object> obj = readRow(configs, sheet.getRow(i));
-			if (obj != null) {
-				Set<InvalidRowError<Map<String,Object>>> errors  = validator.validate(i, obj, configs);
-				if (errors == null || errors.size() <= 0) {
-					list.add(obj);
-				} else {
-					violations.addAll(errors);
-					break;
-				}
-			}
-		}
-		
-		return list;
+	protected Set<InvalidRowError<Map<String, Object>>> validateColumns(int rowIndex, Map<String, Object> value, List<ColumnConfiguration> configs) {
+		return getValidator().validate(rowIndex, value, configs);
+	}
+	
+	public MapValidator getValidator() {
+		return validator == null ? validator = new MapValidator() : validator;
+	}
+
+	public void setValidator(MapValidator validator) {
+		this.validator = validator;
 	}
 	
 	@Override
@@ -75,13 +53,18 @@ public class MapSheetReader extends AbstractSheetReader<Map<String, Object>> {
 			Cell cell = row.getCell(header.getColumnIndex(), MissingCellPolicy.CREATE_NULL_AS_BLANK);
 			Object value = null;
 			
-			if (header.getType() != null) {
-				value = readCell(cell, header.getType());
-			} else {
-				if (!"attachment".equalsIgnoreCase(header.getRawType())) {
-					value = readCell(cell);
+			try {
+				if (header.getType() != null) {
+					value = readCell(cell, header);
+				} else {
+					if (!"attachment".equalsIgnoreCase(header.getRawType())) {
+						value = readCell(cell);
+					}
 				}
-			}		
+			} catch (RuntimeException e) {
+				conversionFailed(row, header, e);
+				throw e;
+			}
 			
 			map.put(header.getKey(), value);
 		}
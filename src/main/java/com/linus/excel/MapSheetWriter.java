@@ -1,6 +1,5 @@
 package com.linus.excel;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -10,16 +9,8 @@ import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddressList;
-import org.apache.poi.xssf.usermodel.XSSFDataValidation;
-import org.apache.poi.xssf.usermodel.XSSFDataValidationConstraint;
-import org.apache.poi.xssf.usermodel.XSSFDataValidationHelper;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-
-import com.linus.excel.validation.ColumnConstraint;
-import com.linus.excel.validation.IntegerRangeColumnConstraint;
-import com.linus.excel.validation.RangeColumnConstraint;
 
 /**
  * 
@@ -43,7 +34,8 @@ public class MapSheetWriter extends AbstractSheetWriter<Map<String, Object>> {
 
 	@Override
 	public void writeSheet(Workbook book, Sheet sheet, List<Map<String, Object>> list, boolean hasTitle) {
-	    
+		prepareSheet(sheet);
+
 		if (hasTitle)
 			createTitle(book, sheet, configs);
 
@@ -53,60 +45,7 @@ public class MapSheetWriter extends AbstractSheetWriter<Map<String, Object>> {
 			writeRow(book, sheet, row, map);
 		}
 
-		for (ColumnConfiguration config : configs) {
-			if (!config.getDisplay()) {
-				hideColumn(sheet, config.getColumnIndex());
-			}
-		}
-
-		if (firstDataRowNum > sheet.getLastRowNum()) {
-			// no data
-			return;
-		}
-
-		for (ColumnConfiguration config : configs) {
-			List<ColumnConstraint> constraints = config.getConstraints();
-			for (ColumnConstraint constraint : constraints) {
-				if (constraint instanceof RangeColumnConstraint) {
-					// only support single
-					if (((RangeColumnConstraint) constraint).isAllowMultiple()) break;
-					
-					List<String> options = Arrays.asList(((RangeColumnConstraint) constraint).getPickList());
-					this.createOptions(options, config.getKey());
-					this.createDropdown(book, sheet, config.getColumnIndex(), config.getKey());
-					
-					break;
-				}
-
-				if (constraint instanceof IntegerRangeColumnConstraint) {
-					IntegerRangeColumnConstraint iconstraint = (IntegerRangeColumnConstraint) constraint;
-					XSSFDataValidationHelper dvHelper = new XSSFDataValidationHelper((XSSFSheet) sheet);
-					XSSFDataValidationConstraint dvConstraint = (XSSFDataValidationConstraint) dvHelper
-							.createNumericConstraint(XSSFDataValidationConstraint.ValidationType.INTEGER,
-									XSSFDataValidationConstraint.OperatorType.BETWEEN, "=" + iconstraint.getMin(), "="
-											+ iconstraint.getMax());
-
-					CellRangeAddressList addressList = new CellRangeAddressList(firstDataRowNum, sheet.getLastRowNum(),
-							config.getColumnIndex(), config.getColumnIndex());
-					XSSFDataValidation validation = (XSSFDataValidation) dvHelper.createValidation(dvConstraint,
-							addressList);
-
-					// Display pick list when user click the cell.
-					validation.setSuppressDropDownArrow(true);
-
-					// Note this extra method call. If this method call is
-					// omitted, or if the
-					// boolean value false is passed, then Excel will not
-					// validate the value the
-					// user enters into the cell.
-					validation.setShowErrorBox(true);
-					sheet.addValidationData(validation);
-					break;
-				}
-			}
-		}
-
-		adjustColumnWidth(sheet, configs);
+		finishSheet(book, sheet);
 	}
 	
 	@Override
@@ -123,12 +62,8 @@ public class MapSheetWriter extends AbstractSheetWriter<Map<String, Object>> {
 
 	public void createSubHead(Workbook book, Sheet sheet, List<ColumnConfiguration> configs) {
 		Row row = sheet.createRow(firstDataRowNum++);
-		CellStyle headerStyle = book.createCellStyle();
-		headerStyle.setAlignment(HorizontalAlignment.CENTER);
-		headerStyle.setFillForegroundColor(IndexedColors.LIME.getIndex());
-		headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-		headerStyle.setFont(this.dataCellFont);
-		headerStyle.setWrapText(true);
+		CellStyle headerStyle = styleRegistry.getCellStyle(this.dataCellFont, HorizontalAlignment.CENTER, VerticalAlignment.BOTTOM,
+				null, true, true, IndexedColors.LIME.getIndex(), FillPatternType.SOLID_FOREGROUND);
 
 		for (ColumnConfiguration config : configs) {
 			if (config != null) {
@@ -148,10 +83,7 @@ public class MapSheetWriter extends AbstractSheetWriter<Map<String, Object>> {
 		Row row = sheet.createRow(firstDataRowNum++);
 
 		// sample data is locked;
-		CellStyle style = book.createCellStyle();
-		style.setLocked(true);
-		style.setWrapText(true);
-		style.setFont(dataCellFont);
+		CellStyle style = styleRegistry.getCellStyle(dataCellFont, true);
 
 		for (ColumnConfiguration config : configs) {
 			if (config != null) {
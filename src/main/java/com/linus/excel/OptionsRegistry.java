@@ -0,0 +1,176 @@
+package com.linus.excel;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.poi.ss.formula.SheetNameFormatter;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetVisibility;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Store pick lists of a workbook in a hidden options sheet, each distinct list once as a column with a named range
+ * referring to it. Lists are identified by content, so dropdowns of all sheets and writers over the same list share
+ * one named range.
+ * <p>
+ * Like {@link CellStyleRegistry}, only names are cached, so the registry doesn't keep workbook alive, and a registry
+ * must not be used by multiple threads at the same time.
+ *
+ * @author lyan2
+ */
+public class OptionsRegistry {
+
+	private static final Map<Workbook, OptionsRegistry> registries = new WeakHashMap<Workbook, OptionsRegistry>();
+
+	private final WeakReference<Workbook> book;
+
+	/**
+	 * Names of options by options sheet name and pick list.
+	 */
+	private final Map<String, Map<OptionsKey, String>> names = new HashMap<String, Map<OptionsKey, String>>();
+
+	private OptionsRegistry(Workbook book) {
+		this.book = new WeakReference<Workbook>(book);
+	}
+
+	/**
+	 * @param book
+	 * @return The registry of workbook, it's created on first call.
+	 */
+	public static OptionsRegistry forWorkbook(Workbook book) {
+		synchronized (registries) {
+			OptionsRegistry registry = registries.get(book);
+			if (registry == null) {
+				registry = new OptionsRegistry(book);
+				registries.put(book, registry);
+			}
+			return registry;
+		}
+	}
+
+	/**
+	 * Get name of options, they are created if the list isn't stored in options sheet yet.
+	 * @param sheetName Name of options sheet.
+	 * @param values
+	 * @param preferredName Name of new options, a suffix is appended if workbook already has the name.
+	 * @return Name of the range of options.
+	 */
+	public String getOptions(String sheetName, List<String> values, String preferredName) {
+		OptionsKey key = new OptionsKey(values.toArray(new String[values.size()]));
+		String name = getNames(sheetName).get(key);
+		if (name != null) return name;
+
+		Workbook workbook = getBook();
+		name = preferredName;
+		for (int i = 2; workbook.getName(name) != null; i++) {
+			name = preferredName + "_" + i;
+		}
+		createOptions(sheetName, key, name);
+		return name;
+	}
+
+	/**
+	 * Store options in a new column of options sheet.
+	 * @param sheetName Name of options sheet.
+	 * @param values
+	 * @param name Name of the range of options, it must not exist in workbook.
+	 */
+	public void createOptions(String sheetName, List<String> values, String name) {
+		createOptions(sheetName, new OptionsKey(values.toArray(new String[values.size()])), name);
+	}
+
+	/**
+	 * @return Number of distinct lists stored by this registry.
+	 */
+	public int size() {
+		int size = 0;
+		for (Map<OptionsKey, String> sheetNames : names.values()) {
+			size += sheetNames.size();
+		}
+		return size;
+	}
+
+	private void createOptions(String sheetName, OptionsKey key, String name) {
+		Workbook workbook = getBook();
+		// In streaming mode, options sheet is kept in memory by the backing XSSFWorkbook, its rows are not flushed.
+		Workbook optionsBook = workbook instanceof SXSSFWorkbook ? ((SXSSFWorkbook) workbook).getXSSFWorkbook() : workbook;
+		Sheet sheet = optionsBook.getSheet(sheetName);
+		if (sheet == null) {
+			sheet = optionsBook.createSheet(sheetName);
+			optionsBook.setSheetVisibility(optionsBook.getSheetIndex(sheetName), SheetVisibility.HIDDEN);
+		}
+
+		Name namedArea = workbook.createName();
+		namedArea.setNameName(name);
+
+		// options are stored column by column, the label row and value rows are shared
+		Row labelRow = getOrCreateRow(sheet, 0);
+		int columnIndex = Math.max(labelRow.getLastCellNum(), 0);
+		labelRow.createCell(columnIndex).setCellValue(name);
+
+		int rowIndex = 1;
+		for (String value : key.values) {
+			getOrCreateRow(sheet, rowIndex++).createCell(columnIndex).setCellValue(value);
+		}
+
+		String colStr = CellReference.convertNumToColString(columnIndex);
+		namedArea.setRefersToFormula(String.format("%s!$%s$2:$%s$%d", SheetNameFormatter.format(sheet.getSheetName()),
+				colStr, colStr, rowIndex));
+
+		getNames(sheetName).putIfAbsent(key, name);
+	}
+
+	private Map<OptionsKey, String> getNames(String sheetName) {
+		Map<OptionsKey, String> sheetNames = names.get(sheetName);
+		if (sheetNames == null) {
+			sheetNames = new HashMap<OptionsKey, String>();
+			names.put(sheetName, sheetNames);
+		}
+		return sheetNames;
+	}
+
+	private static Row getOrCreateRow(Sheet sheet, int rowIndex) {
+		Row row = sheet.getRow(rowIndex);
+		return row == null ? sheet.createRow(rowIndex) : row;
+	}
+
+	private Workbook getBook() {
+		Workbook workbook = book.get();
+		if (workbook == null) throw new IllegalStateException("Workbook has been garbage collected.");
+		return workbook;
+	}
+
+	/**
+	 * Content of a pick list, hash is computed once.
+	 */
+	private static final class OptionsKey {
+		private final String[] values;
+		private final int hash;
+
+		private OptionsKey(String[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof OptionsKey)) return false;
+
+			OptionsKey other = (OptionsKey) obj;
+			return hash == other.hash && Arrays.equals(values, other.values);
+		}
+	}
+}
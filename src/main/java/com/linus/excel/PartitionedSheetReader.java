@@ -0,0 +1,228 @@
+package com.linus.excel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import com.linus.excel.validation.ColumnConstraint;
+import com.linus.excel.validation.UniqueColumnConstraint;
+
+/**
+ * Read a large sheet in parallel. Rows [firstRowNum, lastRowNum] are split into chunks, each chunk is converted and
+ * validated on a fork join pool by its own reader of the reader factory, then chunks are stitched in row order.
+ * <p>
+ * Unique constraints depend on all rows before, so chunk readers skip them, and they are checked while stitching, row by
+ * row in order. Results, including validation errors and where reading stops, are the same as reading the sheet by a
+ * single reader, validation mode and error budget are taken from readers of the factory. The sheet must not be changed
+ * while it's read.
+ *
+ * @param <T>
+ * @author lyan2
+ */
+public class PartitionedSheetReader<T> {
+
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private final Supplier<? extends AbstractSheetReader<T>> readerFactory;
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+
+	/**
+	 * Read chunks of default size on the common fork join pool.
+	 * @param readerFactory Create a reader for each chunk, e.g. MapSheetReader::new.
+	 */
+	public PartitionedSheetReader(Supplier<? extends AbstractSheetReader<T>> readerFactory) {
+		this(readerFactory, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param readerFactory Create a reader for each chunk, e.g. MapSheetReader::new.
+	 * @param pool Chunks are read on it.
+	 * @param chunkSize Number of rows of a chunk.
+	 */
+	public PartitionedSheetReader(Supplier<? extends AbstractSheetReader<T>> readerFactory, ForkJoinPool pool, int chunkSize) {
+		if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+
+		this.readerFactory = readerFactory;
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Read a sheet from the first row till the end.
+	 * @param sheet
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 */
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, Set<InvalidRowError<T>> violations) {
+		if (sheet == null) return null;
+
+		return readSheet(sheet, headers, firstRowNum, sheet.getLastRowNum(), violations);
+	}
+
+	/**
+	 * Read a sheet, invalid rows are handled like {@link AbstractSheetReader} does.
+	 * @param sheet
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 */
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, Set<InvalidRowError<T>> violations) {
+		if (sheet == null || headers == null) return null;
+
+		List<ColumnConfiguration> session = ColumnConfiguration.forSession(headers);
+		List<ColumnConfiguration> chunkHeaders = new ArrayList<ColumnConfiguration>(session.size());
+		List<ColumnConfiguration> uniqueHeaders = new ArrayList<ColumnConfiguration>();
+		splitUniqueConstraints(session, chunkHeaders, uniqueHeaders);
+
+		// the first row where reading is known to stop, chunks don't read beyond it
+		AtomicInteger stopRow = new AtomicInteger(Integer.MAX_VALUE);
+
+		lastRowNum = Math.min(lastRowNum, sheet.getLastRowNum());
+		List<ForkJoinTask<Chunk<T>>> tasks = new ArrayList<ForkJoinTask<Chunk<T>>>();
+		for (long start = Math.max(firstRowNum, 0); start <= lastRowNum; start += chunkSize) {
+			int first = (int) start;
+			int last = (int) Math.min(start + chunkSize - 1, lastRowNum);
+			tasks.add(pool.submit(() -> readChunk(sheet, chunkHeaders, first, last, stopRow)));
+		}
+
+		try {
+			return stitch(tasks, uniqueHeaders, stopRow, violations);
+		} finally {
+			// stop remaining chunks, and don't return until they are done with the sheet
+			stopRow.set(Integer.MIN_VALUE);
+			for (ForkJoinTask<Chunk<T>> task : tasks) {
+				task.quietlyJoin();
+			}
+			ColumnConfiguration.endSession(session, headers);
+		}
+	}
+
+	private Chunk<T> readChunk(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum, AtomicInteger stopRow) {
+		AbstractSheetReader<T> reader = readerFactory.get();
+		Chunk<T> chunk = new Chunk<T>(reader, stopRow);
+		if (firstRowNum > stopRow.get()) return chunk;
+
+		try {
+			reader.readSheet(sheet, headers, firstRowNum, lastRowNum, chunk);
+		} catch (RuntimeException e) {
+			// thrown when stitching reaches it, rows before it may be invalid
+			chunk.failure = e;
+		}
+		return chunk;
+	}
+
+	/**
+	 * Join chunks in row order, check unique constraints of each row and stop where a single reader would stop.
+	 */
+	private List<T> stitch(List<ForkJoinTask<Chunk<T>>> tasks, List<ColumnConfiguration> uniqueHeaders, AtomicInteger stopRow,
+			Set<InvalidRowError<T>> violations) {
+		AbstractSheetReader<T> reader = readerFactory.get();
+		List<T> list = new ArrayList<T>();
+		int errorCount = 0;
+
+		for (ForkJoinTask<Chunk<T>> task : tasks) {
+			Chunk<T> chunk = task.join();
+			int size = chunk.values.size();
+			for (int i = 0; i < size; i++) {
+				int rowIndex = chunk.rowIndexes[i];
+				T value = chunk.values.get(i);
+				Set<InvalidRowError<T>> errors = chunk.errors.get(i);
+
+				if (!uniqueHeaders.isEmpty()) {
+					Set<InvalidRowError<T>> uniqueErrors = reader.validateColumns(rowIndex, value, uniqueHeaders);
+					if (uniqueErrors != null && !uniqueErrors.isEmpty()) {
+						errors = new HashSet<InvalidRowError<T>>(errors);
+						errors.addAll(uniqueErrors);
+					}
+				}
+
+				if (errors.isEmpty()) {
+					list.add(value);
+				} else {
+					if (violations != null) {
+						violations.addAll(errors);
+					}
+					errorCount += errors.size();
+					if (reader.isErrorBudgetUsedUp(errorCount)) return list;
+				}
+			}
+
+			if (chunk.failure != null) throw chunk.failure;
+		}
+
+		return list;
+	}
+
+	/**
+	 * Copy headers without unique constraints for chunk readers, and collect columns which have unique constraints.
+	 */
+	private static void splitUniqueConstraints(List<ColumnConfiguration> headers, List<ColumnConfiguration> chunkHeaders,
+			List<ColumnConfiguration> uniqueHeaders) {
+		for (ColumnConfiguration header : headers) {
+			List<ColumnConstraint> constraints = header.getConstraints();
+			if (constraints == null || constraints.stream().noneMatch(UniqueColumnConstraint.class::isInstance)) {
+				chunkHeaders.add(header);
+				continue;
+			}
+
+			ColumnConfiguration chunkHeader = new ColumnConfiguration(header);
+			chunkHeader.getConstraints().removeIf(UniqueColumnConstraint.class::isInstance);
+			chunkHeaders.add(chunkHeader);
+
+			ColumnConfiguration uniqueHeader = new ColumnConfiguration(header);
+			uniqueHeader.getConstraints().removeIf(constraint -> !(constraint instanceof UniqueColumnConstraint));
+			uniqueHeaders.add(uniqueHeader);
+		}
+	}
+
+	/**
+	 * Rows of a chunk, including invalid rows whose values are still checked by unique constraints.
+	 */
+	private static final class Chunk<T> implements RowHandler<T> {
+		private final AbstractSheetReader<T> reader;
+		private final AtomicInteger stopRow;
+		private final List<T> values = new ArrayList<T>();
+		private final List<Set<InvalidRowError<T>>> errors = new ArrayList<Set<InvalidRowError<T>>>();
+		private int[] rowIndexes = new int[16];
+		private int errorCount = 0;
+		private RuntimeException failure;
+
+		private Chunk(AbstractSheetReader<T> reader, AtomicInteger stopRow) {
+			this.reader = reader;
+			this.stopRow = stopRow;
+		}
+
+		@Override
+		public boolean handleRow(int rowIndex, T value, Set<InvalidRowError<T>> errors) {
+			if (values.size() == rowIndexes.length) {
+				rowIndexes = Arrays.copyOf(rowIndexes, rowIndexes.length * 2);
+			}
+			rowIndexes[values.size()] = rowIndex;
+			values.add(value);
+			this.errors.add(errors);
+
+			if (!errors.isEmpty()) {
+				// a single reader has found at least as many errors by this row
+				errorCount += errors.size();
+				if (reader.isErrorBudgetUsedUp(errorCount)) {
+					stopRow.accumulateAndGet(rowIndex, Math::min);
+				}
+			}
+			// rows after stop row are never used
+			return rowIndex < stopRow.get();
+		}
+	}
+}
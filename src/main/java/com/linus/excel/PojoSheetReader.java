@@ -1,8 +1,6 @@
 package com.linus.excel;
 
 import java.beans.IntrospectionException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -11,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,6 +22,7 @@ import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
 import org.apache.poi.ss.usermodel.Sheet;
 
 import com.linus.excel.util.ColumnConfigurationParserForJson;
+import com.linus.excel.util.PropertyAccessor;
 
 public class PojoSheetReader<T> extends AbstractSheetReader<T> {
 	
@@ -31,64 +31,51 @@ public class PojoSheetReader<T> extends AbstractSheetReader<T> {
 	
 	private Validator validator;
 	protected Class<T> clazz;
+	private Class<T> instantiatorClass;
+	private Supplier<T> instantiator;
+	
+	public PojoSheetReader() {
+		super();
+	}
+	
+	/**
+	 * @param clazz Type of the instance each row is converted into.
+	 */
+	public PojoSheetReader(Class<T> clazz) {
+		super();
+		this.clazz = clazz;
+	}
 	
 	public List<T> readSheet(Sheet sheet, Class<T> clazz, int firstDataRow, Set<InvalidRowError<T>> constraintViolations) {
-		ArrayList<ColumnConfiguration> headers = null;
-
-		if (sheetHeaders.containsKey(clazz)) {
-			 headers = sheetHeaders.get(clazz);
-		} else {
+		// cached configurations are shared by threads, constraint state is kept per read
+		ArrayList<ColumnConfiguration> headers = sheetHeaders.computeIfAbsent(clazz, type -> {
 			try {
-				headers = ColumnConfigurationParserForJson.getColumnConfigurations(clazz);
+				return ColumnConfigurationParserForJson.getColumnConfigurations(clazz);
 			} catch (IntrospectionException e) {
 				logger.log(Level.SEVERE, "Failed to get column configuration from class - " + clazz.getName() + ", due to bean instropection exception.");
+				return null;
 			}
-			
-			sheetHeaders.put(clazz, headers);
-		}
+		});
 		
 		this.clazz = clazz;
 		return readSheet(sheet, headers, firstDataRow, constraintViolations);
 	}
 	
 	@Override
-	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstDataRow, Set<InvalidRowError<T>> constraintViolations) {
-		return readSheet(sheet, headers, firstDataRow, sheet.getLastRowNum(), constraintViolations);
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstDataRow, int lastRowNum, Set<InvalidRowError<T>> constraintViolations) {
+		if (headers == null || sheet == null) return null;
+		
+		return super.readSheet(sheet, headers, firstDataRow, lastRowNum, constraintViolations);
 	}
 	
 	@Override
-	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstDataRow, int lastRowNum, Set<InvalidRowError<T>> constraintViolations) {
-		if (headers == null || sheet == null) return null;
+	protected Set<InvalidRowError<T>> validateRow(int rowIndex, T value, List<ColumnConfiguration> headers) {
+		if (validator == null) return null;
 		
-		ArrayList<T> list = new ArrayList<T>();
+		Set<ConstraintViolation<T>> violations = validator.validate(value);
+		if (violations == null || violations.isEmpty()) return null;
 		
-		for (int i = firstDataRow; i < lastRowNum; i++) {
-			logger.log(Level.INFO,	"Beginning to read row " + i);
-			Row row = sheet.getRow(i);
-			
-			if (row != null) {
-				T obj = readRow(headers, row);
-				if (obj != null) {
-					if (validator != null) {
-						Set<ConstraintViolation<T>> violations = validator.validate(obj);
-						
-						if (violations == null || violations.isEmpty()) {
-							list.add(obj);
-						} else {
-							if (constraintViolations != null) {
-								constraintViolations.addAll(transferConstraintViolation(i, violations));
-								break;
-							}
-						}
-					} else {
-						list.add(obj);
-					}
-				}
-			}
-		}
-		
-		return list;
-
+		return transferConstraintViolation(rowIndex, violations);
 	}
 	
 	private Set<InvalidRowError<T>> transferConstraintViolation(int rowNum, Set<ConstraintViolation<T>> violations) {
@@ -112,49 +99,56 @@ public class PojoSheetReader<T> extends AbstractSheetReader<T> {
 		T o = null;
 
 		if (headers != null && !headers.isEmpty()) {
-			try {
-				o = clazz.newInstance();
-			} catch (InstantiationException e) {
-				logger.log(Level.WARNING, "Class " + clazz.getName()
-						+ " can't be instantiated!");
-				e.printStackTrace();
-				return o;
-			} catch (IllegalAccessException e) {
-				logger.log(Level.WARNING, "Class " + clazz.getName()
-						+ " can't be instantiated! Because it's not accssable.");
-				e.printStackTrace();
-				return o;
-			}
+			Supplier<T> instantiator = getInstantiator();
+			if (instantiator == null) return o;
+			o = instantiator.get();
 
-			Iterator<ColumnConfiguration> iter = headers.iterator();
-			ColumnConfiguration header = null;
-			while (iter.hasNext()) {
-				header = iter.next();
+			for (int i = 0, size = headers.size(); i < size; i++) {
+				ColumnConfiguration header = headers.get(i);
 				
 				Cell cell = row.getCell(header.getColumnIndex(), MissingCellPolicy.RETURN_NULL_AND_BLANK);
-				Method setter = header.getPropertyDescriptor().getWriteMethod();
-				Object value = readCell(cell, header.getPropertyDescriptor().getReadMethod().getReturnType());
-
-				logger.log(Level.INFO, "Property "
-						+ header.getPropertyDescriptor().getName()
-						+ " get value " + value);
+				Object value;
 				try {
-					if (value != null ) {
-						setter.invoke(o, value);
+					value = readCell(cell, header);
+				} catch (RuntimeException e) {
+					conversionFailed(row, header, e);
+					throw e;
+				}
+
+				if (value != null) {
+					try {
+						header.getPropertyAccessor().set(o, value);
+					} catch (Exception e) {
+						conversionFailed(row, header, e);
+						logger.log(Level.WARNING, "Property "
+								+ header.getPropertyDescriptor().getName()
+								+ " can't be set on Class " + clazz.getName()
+								+ " instance, value is " + value, e);
 					}
-				} catch (IllegalAccessException | IllegalArgumentException
-						| InvocationTargetException e) {
-					logger.log(Level.WARNING, "Property "
-							+ header.getPropertyDescriptor().getName()
-							+ " can't be set on Class " + clazz.getName()
-							+ " instance, value is " + value);
-					e.printStackTrace();
 				}
 			}
 		}
 		return o;
 	}
 	
+	/**
+	 * No-argument constructor of clazz is compiled once, and compiled again only if clazz is changed.
+	 * @return null if clazz can't be instantiated.
+	 */
+	private Supplier<T> getInstantiator() {
+		if (instantiatorClass != clazz) {
+			try {
+				instantiator = PropertyAccessor.instantiator(clazz);
+			} catch (IllegalArgumentException e) {
+				logger.log(Level.WARNING, "Class " + clazz.getName() + " can't be instantiated!", e);
+				instantiator = null;
+			}
+			instantiatorClass = clazz;
+		}
+		
+		return instantiator;
+	}
+	
 	public void setValidator(Validator validator) {
 		this.validator = validator;
 	}
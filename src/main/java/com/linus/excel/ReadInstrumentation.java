@@ -0,0 +1,38 @@
+package com.linus.excel;
+
+/**
+ * Observe how a sheet is read, for example to count rows, cells and failures, or to time each phase in a metrics system.
+ * Readers don't call it or measure time at all when no instrumentation is set.
+ * <p>
+ * Implementations must be thread safe if they are shared by readers in different threads.
+ *
+ * @author lyan2
+ * @see CountingReadInstrumentation
+ */
+public interface ReadInstrumentation {
+
+	/**
+	 * A row has been converted.
+	 * @param rowIndex 0 based row number.
+	 * @param cells Number of cells converted.
+	 * @param nanos Time spent on converting the row.
+	 */
+	public void rowRead(int rowIndex, int cells, long nanos);
+
+	/**
+	 * A converted row has been validated.
+	 * @param rowIndex 0 based row number.
+	 * @param valid Whether the row is valid.
+	 * @param nanos Time spent on validating the row.
+	 */
+	public void rowValidated(int rowIndex, boolean valid, long nanos);
+
+	/**
+	 * A cell failed to be converted or to be set on the row value.
+	 * @param rowIndex 0 based row number.
+	 * @param column Configuration of the cell's column.
+	 * @param cause
+	 */
+	public void conversionFailed(int rowIndex, ColumnConfiguration column, Exception cause);
+
+}
@@ -0,0 +1,28 @@
+package com.linus.excel;
+
+import java.util.Set;
+
+/**
+ * Receive rows one by one while a sheet is being read, so rows don't need to be held until the whole sheet is read.
+ * 
+ * @param <T> Row type.
+ * @author lyan2
+ */
+public interface RowHandler<T> {
+	
+	/**
+	 * Handle a row which has been read and validated. Reading stops after a invalid row is handled, unless reader is in
+	 * {@link com.linus.excel.validation.ValidationMode#COLLECT_ALL} mode.
+	 * @param rowIndex 0 based row number.
+	 * @param value Converted row value.
+	 * @param errors Validation errors of this row, empty if row is valid.
+	 * @return false to stop reading.
+	 */
+	public boolean handleRow(int rowIndex, T value, Set<InvalidRowError<T>> errors);
+	
+	/**
+	 * Called once after the last row is handled, including reading is stopped.
+	 */
+	public default void endSheet() {
+	}
+}
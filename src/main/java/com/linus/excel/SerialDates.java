@@ -0,0 +1,170 @@
+package com.linus.excel;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Convert Excel serial dates, i.e. days since 1900 or 1904 with time as fraction, into java values directly, without
+ * Calendar or formatted text in between. Values are the same as POI's {@link Cell#getDateCellValue()} gets: time is
+ * rounded to milliseconds, and serial 60, the 1900-02-29 which only Excel thinks exists, is 1900-03-01 like serial 61.
+ *
+ * @author lyan2
+ */
+public final class SerialDates {
+
+	private SerialDates() {
+	}
+
+	/**
+	 * @param serial
+	 * @param date1904 Whether workbook uses 1904 date windowing.
+	 * @return null if serial isn't a valid date.
+	 */
+	public static LocalDateTime toLocalDateTime(double serial, boolean date1904) {
+		if (!DateUtil.isValidExcelDate(serial)) return null;
+
+		int wholeDays = (int) Math.floor(serial);
+		int millis = (int) ((serial - wholeDays) * DateUtil.DAY_MILLISECONDS + 0.5);
+
+		// as DateUtil.setCalendar does, day of month 0 is the last day of previous month
+		int startYear = 1900;
+		int dayAdjust = -1;
+		if (date1904) {
+			startYear = 1904;
+			dayAdjust = 1;
+		} else if (wholeDays < 61) {
+			dayAdjust = 0;
+		}
+		return LocalDate.of(startYear, 1, 1).plusDays(wholeDays + dayAdjust - 1L).atStartOfDay().plusNanos(millis * 1000000L);
+	}
+
+	/**
+	 * @param serial
+	 * @param date1904
+	 * @return null if serial isn't a valid date.
+	 */
+	public static LocalDate toLocalDate(double serial, boolean date1904) {
+		LocalDateTime time = toLocalDateTime(serial, date1904);
+		return time == null ? null : time.toLocalDate();
+	}
+
+	/**
+	 * @param serial
+	 * @param date1904
+	 * @return Time of day, null if serial isn't a valid date.
+	 */
+	public static LocalTime toLocalTime(double serial, boolean date1904) {
+		LocalDateTime time = toLocalDateTime(serial, date1904);
+		return time == null ? null : time.toLocalTime();
+	}
+
+	/**
+	 * Same as {@link DateUtil#getJavaDate(double, boolean)}, in POI user time zone.
+	 * @param serial
+	 * @param date1904
+	 * @return null if serial isn't a valid date.
+	 */
+	public static Date toDate(double serial, boolean date1904) {
+		LocalDateTime time = toLocalDateTime(serial, date1904);
+		if (time == null) return null;
+
+		TimeZone zone = LocaleUtil.getUserTimeZone();
+		long millis = toEpochMillis(time, zone.toZoneId());
+		// local time in gap or overlap is resolved as Calendar does
+		return millis == Long.MIN_VALUE ? DateUtil.getJavaDate(serial, date1904, zone) : new Date(millis);
+	}
+
+	/**
+	 * Same as {@link com.linus.date.DateUtil#resolveTime(Date)} of {@link #toDate(double, boolean)}: time of day as time
+	 * of 1970-01-01 in default time zone.
+	 * @param serial
+	 * @param date1904
+	 * @return null if serial isn't a valid date.
+	 */
+	public static Time toTime(double serial, boolean date1904) {
+		LocalDateTime time = toLocalDateTime(serial, date1904);
+		if (time == null) return null;
+
+		TimeZone zone = TimeZone.getDefault();
+		if (zone.hasSameRules(LocaleUtil.getUserTimeZone())) {
+			ZoneId zoneId = zone.toZoneId();
+			if (toEpochMillis(time, zoneId) != Long.MIN_VALUE) {
+				LocalTime localTime = time.toLocalTime().withNano(0);
+				long millis = toEpochMillis(LocalDate.of(1970, 1, 1).atTime(localTime), zoneId);
+				if (millis != Long.MIN_VALUE) return new Time(millis);
+			}
+		}
+
+		return com.linus.date.DateUtil.resolveTime(toDate(serial, date1904));
+	}
+
+	/**
+	 * Same as {@link DateUtil#getExcelDate(LocalDateTime, boolean)}.
+	 * @param time
+	 * @param date1904
+	 * @return -1 if time is before the start of date windowing.
+	 */
+	public static double toSerial(LocalDateTime time, boolean date1904) {
+		return DateUtil.getExcelDate(time, date1904);
+	}
+
+	/**
+	 * @param time
+	 * @return Time of day as fraction of a day, the serial of a date without days.
+	 */
+	public static double toSerial(LocalTime time) {
+		return time.toNanoOfDay() / (DateUtil.DAY_MILLISECONDS * 1000000d);
+	}
+
+	/**
+	 * @param date
+	 * @return Local time of date in POI user time zone, which {@link #toDate(double, boolean)} converts back.
+	 */
+	public static LocalDateTime toLocalDateTime(Date date) {
+		return date.toInstant().atZone(LocaleUtil.getUserTimeZone().toZoneId()).toLocalDateTime();
+	}
+
+	/**
+	 * @param cell
+	 * @return Whether workbook of cell uses 1904 date windowing, null if it's unknown.
+	 */
+	public static Boolean isDate1904(Cell cell) {
+		return isDate1904(cell.getSheet().getWorkbook());
+	}
+
+	/**
+	 * @param book
+	 * @return Whether workbook uses 1904 date windowing, null if it's unknown.
+	 */
+	public static Boolean isDate1904(Workbook book) {
+		if (book instanceof Date1904Support) return ((Date1904Support) book).isDate1904();
+		if (book instanceof SXSSFWorkbook) return ((SXSSFWorkbook) book).getXSSFWorkbook().isDate1904();
+		// HSSFWorkbook of POI 4.1 doesn't implement Date1904Support yet
+		if (book instanceof HSSFWorkbook) return ((HSSFWorkbook) book).getInternalWorkbook().isUsing1904DateWindowing();
+		return null;
+	}
+
+	/**
+	 * @return Long.MIN_VALUE if local time is in a gap or overlap of zone.
+	 */
+	private static long toEpochMillis(LocalDateTime time, ZoneId zone) {
+		ZoneRules rules = zone.getRules();
+		if (rules.getTransition(time) != null) return Long.MIN_VALUE;
+
+		return time.toEpochSecond(rules.getOffset(time)) * 1000 + time.getNano() / 1000000;
+	}
+}
@@ -0,0 +1,58 @@
+package com.linus.excel;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows and validation errors of a sheet read by {@link WorkbookReader}.
+ *
+ * @param <T>
+ * @author lyan2
+ */
+public class SheetResult<T> {
+
+	private final int sheetIndex;
+	private final String sheetName;
+	private List<T> rows;
+	private final Set<InvalidRowError<T>> violations = new HashSet<InvalidRowError<T>>();
+
+	/**
+	 * @param sheetIndex 0 based sheet index
+	 * @param sheetName
+	 */
+	public SheetResult(int sheetIndex, String sheetName) {
+		this.sheetIndex = sheetIndex;
+		this.sheetName = sheetName;
+	}
+
+	public int getSheetIndex() {
+		return sheetIndex;
+	}
+
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	/**
+	 * @return Valid rows, same as reading the sheet by a sheet reader.
+	 */
+	public List<T> getRows() {
+		return rows;
+	}
+
+	public void setRows(List<T> rows) {
+		this.rows = rows;
+	}
+
+	public Set<InvalidRowError<T>> getViolations() {
+		return violations;
+	}
+
+	/**
+	 * @return true if no validation error.
+	 */
+	public boolean isValid() {
+		return violations.isEmpty();
+	}
+}
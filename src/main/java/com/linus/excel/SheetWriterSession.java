@@ -0,0 +1,139 @@
+package com.linus.excel;
+
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Append rows to a sheet in batches, e.g. pages of a query, without tracking row numbers. Rows are written after the
+ * last row of the sheet, and finishing steps (hidden columns, data validations and column widths) are done once by
+ * {@link #finish()}.
+ * <p>
+ * First data row and estimated column widths belong to the session, so a writer's state isn't changed by sessions.
+ * <p>
+ * A session is opened by {@link AbstractSheetWriter#openSession(Sheet, boolean)}. A writer should have only one open
+ * session at a time, and like the workbook, a session must not be used by multiple threads at the same time.
+ *
+ * @param <T>
+ * @author lyan2
+ */
+public class SheetWriterSession<T> implements AutoCloseable {
+
+	private final AbstractSheetWriter<T> writer;
+
+	private final Workbook book;
+
+	private final Sheet sheet;
+
+	/**
+	 * First row covered by data validations.
+	 */
+	private final int firstDataRowNum;
+
+	/**
+	 * Widths of columns, null if columns are auto sized.
+	 */
+	private final ColumnWidthEstimator estimator;
+
+	private int nextRowNum;
+
+	private int rowCount = 0;
+
+	private boolean finished = false;
+
+	SheetWriterSession(AbstractSheetWriter<T> writer, Sheet sheet, int firstDataRowNum, int nextRowNum,
+			ColumnWidthEstimator estimator) {
+		this.writer = writer;
+		this.book = sheet.getWorkbook();
+		this.sheet = sheet;
+		this.firstDataRowNum = firstDataRowNum;
+		this.nextRowNum = nextRowNum;
+		this.estimator = estimator;
+	}
+
+	/**
+	 * Append a row.
+	 * @param data
+	 * @return This session.
+	 */
+	public SheetWriterSession<T> append(T data) {
+		if (finished) throw new IllegalStateException("Session of sheet " + sheet.getSheetName() + " is finished.");
+
+		Row row = sheet.createRow(nextRowNum++);
+		writer.writeRow(book, sheet, row, data, estimator);
+		rowCount++;
+		return this;
+	}
+
+	/**
+	 * Append rows in order.
+	 * @param batch
+	 * @return This session.
+	 */
+	public SheetWriterSession<T> append(Iterable<? extends T> batch) {
+		for (T data : batch) {
+			append(data);
+		}
+		return this;
+	}
+
+	/**
+	 * Append rows in encounter order, stream is consumed in the calling thread.
+	 * @param batch
+	 * @return This session.
+	 */
+	public SheetWriterSession<T> append(Stream<? extends T> batch) {
+		batch.sequential().forEachOrdered(this::append);
+		return this;
+	}
+
+	/**
+	 * Hide columns, create data validations and adjust column widths for all rows appended. It's done only once, rows
+	 * can't be appended after it.
+	 */
+	public void finish() {
+		if (finished) return;
+
+		finished = true;
+		writer.finishSheet(book, sheet, firstDataRowNum, estimator);
+	}
+
+	/**
+	 * Same as {@link #finish()}.
+	 */
+	@Override
+	public void close() {
+		finish();
+	}
+
+	public Sheet getSheet() {
+		return sheet;
+	}
+
+	/**
+	 * @return First row covered by data validations, rows before it are title.
+	 */
+	public int getFirstDataRowNum() {
+		return firstDataRowNum;
+	}
+
+	/**
+	 * @return Row number of the next row appended.
+	 */
+	public int getNextRowNum() {
+		return nextRowNum;
+	}
+
+	/**
+	 * @return Number of rows appended by this session.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+}
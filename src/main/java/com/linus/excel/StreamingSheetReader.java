@@ -0,0 +1,265 @@
+package com.linus.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+/**
+ * Read .xlsx sheet without loading the whole workbook into memory. Rows are pulled from the sheet XML one by one, and are
+ * converted and validated by the wrapped reader, so results are the same as reading a XSSFWorkbook with the wrapped reader.
+ * <p>
+ * Sheet based methods of ISheetReader are delegated to the wrapped reader.
+ *
+ * @param <T>
+ * @author lyan2
+ */
+public class StreamingSheetReader<T> implements ISheetReader<T> {
+
+	private final AbstractSheetReader<T> reader;
+
+	/**
+	 * @param reader A ListSheetReader, MapSheetReader or PojoSheetReader which converts and validates rows.
+	 */
+	public StreamingSheetReader(AbstractSheetReader<T> reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Read a sheet of .xlsx file from the first row till the end.
+	 * @param file .xlsx file
+	 * @param sheetIndex 0 based sheet index
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 * @throws IOException
+	 */
+	public List<T> readSheet(File file, int sheetIndex, List<ColumnConfiguration> headers, int firstRowNum,
+			Set<InvalidRowError<T>> violations) throws IOException {
+		return readSheet(file, sheetIndex, headers, firstRowNum, Integer.MAX_VALUE, violations);
+	}
+
+	/**
+	 * Read a sheet of .xlsx file.
+	 * @param file .xlsx file
+	 * @param sheetIndex 0 based sheet index
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 * @throws IOException
+	 */
+	public List<T> readSheet(File file, int sheetIndex, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum,
+			Set<InvalidRowError<T>> violations) throws IOException {
+		OPCPackage pkg = null;
+		try {
+			pkg = OPCPackage.open(file, PackageAccess.READ);
+			return readSheet(pkg, sheetIndex, headers, firstRowNum, lastRowNum, violations);
+		} catch (InvalidFormatException e) {
+			throw new IOException("Invalid .xlsx file " + file.getName(), e);
+		} finally {
+			if (pkg != null) {
+				// read only, close without saving
+				pkg.revert();
+			}
+		}
+	}
+
+	/**
+	 * Read a sheet of opened .xlsx package.
+	 * @param pkg .xlsx package, it's not closed by this method.
+	 * @param sheetIndex 0 based sheet index
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 * @throws IOException
+	 */
+	public List<T> readSheet(OPCPackage pkg, int sheetIndex, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum,
+			Set<InvalidRowError<T>> violations) throws IOException {
+		XSSFStreamingRowIterator rows = openSheet(pkg, sheetIndex);
+		try {
+			return reader.readSheet(rows, headers, firstRowNum, lastRowNum, violations);
+		} finally {
+			rows.close();
+		}
+	}
+
+	/**
+	 * Read a sheet of .xlsx file and push each row to handler, neither the workbook nor the rows are held in memory.
+	 * @param file .xlsx file
+	 * @param sheetIndex 0 based sheet index
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void readSheet(File file, int sheetIndex, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum,
+			RowHandler<T> handler) throws IOException {
+		OPCPackage pkg = null;
+		try {
+			pkg = OPCPackage.open(file, PackageAccess.READ);
+			readSheet(pkg, sheetIndex, headers, firstRowNum, lastRowNum, handler);
+		} catch (InvalidFormatException e) {
+			throw new IOException("Invalid .xlsx file " + file.getName(), e);
+		} finally {
+			if (pkg != null) {
+				// read only, close without saving
+				pkg.revert();
+			}
+		}
+	}
+
+	/**
+	 * Read a sheet of opened .xlsx package and push each row to handler.
+	 * @param pkg .xlsx package, it's not closed by this method.
+	 * @param sheetIndex 0 based sheet index
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void readSheet(OPCPackage pkg, int sheetIndex, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum,
+			RowHandler<T> handler) throws IOException {
+		XSSFStreamingRowIterator rows = openSheet(pkg, sheetIndex);
+		try {
+			reader.readSheet(rows, headers, firstRowNum, lastRowNum, handler);
+		} finally {
+			rows.close();
+		}
+	}
+
+	/**
+	 * Lazily read a sheet of .xlsx file, a row is parsed, converted and validated only when it's pulled from the stream.
+	 * The stream holds the opened file, so it must be closed, e.g. by try-with-resources.
+	 * @param file .xlsx file
+	 * @param sheetIndex 0 based sheet index
+	 * @param headers
+	 * @param firstRowNum The number of the first row to read.
+	 * @param lastRowNum The number of the last row to read.
+	 * @param violations Validation errors will be stored here.
+	 * @return
+	 * @throws IOException
+	 */
+	public Stream<T> streamSheet(File file, int sheetIndex, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum,
+			Set<InvalidRowError<T>> violations) throws IOException {
+		final OPCPackage pkg;
+		try {
+			pkg = OPCPackage.open(file, PackageAccess.READ);
+		} catch (InvalidFormatException e) {
+			throw new IOException("Invalid .xlsx file " + file.getName(), e);
+		}
+		
+		final XSSFStreamingRowIterator rows;
+		try {
+			rows = openSheet(pkg, sheetIndex);
+		} catch (IOException | RuntimeException e) {
+			pkg.revert();
+			throw e;
+		}
+		
+		return reader.streamSheet(rows, headers, firstRowNum, lastRowNum, violations).onClose(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					rows.close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} finally {
+					pkg.revert();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Open a streaming row iterator on a sheet of .xlsx package. Caller must close the iterator.
+	 * @param pkg
+	 * @param sheetIndex 0 based sheet index
+	 * @return
+	 * @throws IOException
+	 */
+	public static XSSFStreamingRowIterator openSheet(OPCPackage pkg, int sheetIndex) throws IOException {
+		try {
+			XSSFReader xssfReader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+
+			boolean date1904 = isDate1904(xssfReader);
+
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+			int index = 0;
+			while (sheets.hasNext()) {
+				InputStream sheetData = sheets.next();
+				if (index++ == sheetIndex) {
+					return new XSSFStreamingRowIterator(sheetData, sharedStrings, date1904);
+				}
+				sheetData.close();
+			}
+		} catch (OpenXML4JException | SAXException e) {
+			throw new IOException("Failed to open sheet " + sheetIndex, e);
+		}
+
+		throw new IllegalArgumentException("Sheet index (" + sheetIndex + ") is out of range");
+	}
+
+	/**
+	 * @param xssfReader
+	 * @return Whether the workbook uses 1904 date windowing.
+	 * @throws IOException
+	 * @throws InvalidFormatException
+	 */
+	static boolean isDate1904(XSSFReader xssfReader) throws IOException, InvalidFormatException {
+		InputStream workbookData = xssfReader.getWorkbookData();
+		try {
+			return XSSFStreamingRowIterator.isDate1904(workbookData);
+		} finally {
+			workbookData.close();
+		}
+	}
+
+	@Override
+	public Object readCell(Cell cell) {
+		return reader.readCell(cell);
+	}
+
+	@Override
+	public Object readCell(Cell cell, Class<?> type) {
+		return reader.readCell(cell, type);
+	}
+
+	@Override
+	public T readRow(List<ColumnConfiguration> headers, Row row) {
+		return reader.readRow(headers, row);
+	}
+
+	@Override
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum,
+			Set<InvalidRowError<T>> violations) {
+		return reader.readSheet(sheet, headers, firstRowNum, violations);
+	}
+
+	@Override
+	public List<T> readSheet(Sheet sheet, List<ColumnConfiguration> headers, int firstRowNum, int lastRowNum,
+			Set<InvalidRowError<T>> violations) {
+		return reader.readSheet(sheet, headers, firstRowNum, lastRowNum, violations);
+	}
+}
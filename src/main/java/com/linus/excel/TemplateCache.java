@@ -0,0 +1,220 @@
+package com.linus.excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.linus.excel.validation.ColumnConstraint;
+import com.linus.excel.validation.IntegerRangeColumnConstraint;
+import com.linus.excel.validation.RangeColumnConstraint;
+
+/**
+ * Cache generated templates, i.e. import templates of titles, styles, dropdowns and validations, as serialized
+ * workbooks. A template is built once per column configurations and locale, later requests get a copy of its bytes
+ * instead of building the workbook again.
+ * <p>
+ * Configurations are identified by content of what a template shows: titles, types, lengths, hidden columns and
+ * constraints of dropdowns and ranges. So configurations parsed again, e.g. from the same file, share one template, and
+ * a changed configuration gets a new one.
+ * <p>
+ * A cache can be used by multiple threads. A template is built only once even if it's requested by multiple threads at
+ * the same time, and building doesn't block requests of other templates.
+ *
+ * @author lyan2
+ */
+public class TemplateCache {
+
+	private final ConcurrentMap<Key, FutureTask<byte[]>> templates = new ConcurrentHashMap<Key, FutureTask<byte[]>>();
+
+	private final String sheetName;
+
+	public TemplateCache() {
+		this("Sheet1");
+	}
+
+	/**
+	 * @param sheetName Name of data sheet of templates.
+	 */
+	public TemplateCache(String sheetName) {
+		this.sheetName = sheetName;
+	}
+
+	/**
+	 * Write template to output, it's built first if it's not cached.
+	 * @param configs Column configurations of locale, e.g. by ColumnConfigurationParserForJson.
+	 * @param locale
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(List<ColumnConfiguration> configs, Locale locale, OutputStream out) throws IOException {
+		out.write(getBytes(configs, locale));
+	}
+
+	/**
+	 * @param configs
+	 * @param locale
+	 * @return A copy of template's bytes.
+	 */
+	public byte[] getTemplate(List<ColumnConfiguration> configs, Locale locale) {
+		return getBytes(configs, locale).clone();
+	}
+
+	/**
+	 * Open a copy of template, e.g. to append data to it.
+	 * @param configs
+	 * @param locale
+	 * @return A new workbook.
+	 * @throws IOException
+	 */
+	public XSSFWorkbook open(List<ColumnConfiguration> configs, Locale locale) throws IOException {
+		return new XSSFWorkbook(new ByteArrayInputStream(getBytes(configs, locale)));
+	}
+
+	/**
+	 * @param configs
+	 * @param locale
+	 * @return Whether template is cached or being built.
+	 */
+	public boolean contains(List<ColumnConfiguration> configs, Locale locale) {
+		return templates.containsKey(new Key(configs, locale));
+	}
+
+	/**
+	 * Remove a template, e.g. after its configurations are changed in place.
+	 * @param configs
+	 * @param locale
+	 */
+	public void invalidate(List<ColumnConfiguration> configs, Locale locale) {
+		templates.remove(new Key(configs, locale));
+	}
+
+	public void clear() {
+		templates.clear();
+	}
+
+	/**
+	 * @return Number of cached templates.
+	 */
+	public int size() {
+		return templates.size();
+	}
+
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	/**
+	 * Fill a new workbook with template, by default titles of a sheet with data validations of
+	 * {@link AbstractSheetWriter#DEFAULT_TEMPLATE_ROWS} empty rows. Override it to add more to templates, e.g. a sheet of
+	 * instructions.
+	 * @param book
+	 * @param configs
+	 * @param locale
+	 */
+	protected void build(XSSFWorkbook book, List<ColumnConfiguration> configs, Locale locale) {
+		MapSheetWriter writer = new MapSheetWriter(book, configs);
+		writer.setTemplateRows(AbstractSheetWriter.DEFAULT_TEMPLATE_ROWS);
+		writer.writeSheet(book, book.createSheet(sheetName), Collections.<Map<String, Object>>emptyList(), true);
+	}
+
+	private byte[] getBytes(List<ColumnConfiguration> configs, Locale locale) {
+		Key key = new Key(configs, locale);
+		FutureTask<byte[]> task = templates.get(key);
+		if (task == null) {
+			// built outside of map's lock, other threads of the same template wait for the task
+			FutureTask<byte[]> newTask = new FutureTask<byte[]>(() -> build(configs, locale));
+			task = templates.putIfAbsent(key, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for template.", e);
+		} catch (ExecutionException e) {
+			// failed templates are built again by later requests
+			templates.remove(key, task);
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) throw new UncheckedIOException("Failed to build template.", (IOException) cause);
+			if (cause instanceof Error) throw (Error) cause;
+			throw (RuntimeException) cause;
+		}
+	}
+
+	private byte[] build(List<ColumnConfiguration> configs, Locale locale) throws IOException {
+		try (XSSFWorkbook book = new XSSFWorkbook()) {
+			build(book, configs, locale);
+
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			book.write(bos);
+			return bos.toByteArray();
+		}
+	}
+
+	/**
+	 * Content of configurations which a template shows, and locale.
+	 */
+	private static final class Key {
+		private final List<Object> content;
+		private final Locale locale;
+		private final int hash;
+
+		private Key(List<ColumnConfiguration> configs, Locale locale) {
+			this.content = new ArrayList<Object>(configs.size() * 8);
+			for (ColumnConfiguration config : configs) {
+				if (config == null) continue;
+
+				content.addAll(Arrays.asList(config.getColumnIndex(), config.getKey(), config.getTitle(),
+						config.getRawType(), config.getLength(), config.getDisplay()));
+				for (ColumnConstraint constraint : config.getConstraints()) {
+					content.add(constraint.getClass());
+					if (constraint instanceof RangeColumnConstraint) {
+						RangeColumnConstraint range = (RangeColumnConstraint) constraint;
+						String[] pickList = range.getPickList();
+						content.addAll(Arrays.asList(pickList == null ? null : Arrays.asList(pickList),
+								range.getMustInRange(), range.isAllowMultiple()));
+					} else if (constraint instanceof IntegerRangeColumnConstraint) {
+						IntegerRangeColumnConstraint range = (IntegerRangeColumnConstraint) constraint;
+						content.addAll(Arrays.asList(range.getMin(), range.getMax()));
+					}
+				}
+				// end of a column
+				content.add(null);
+			}
+			this.locale = locale;
+			this.hash = Objects.hash(content, locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+
+			Key other = (Key) obj;
+			return hash == other.hash && Objects.equals(locale, other.locale) && content.equals(other.content);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.linus.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.SAXException;
+
+import com.linus.excel.validation.UniqueColumnConstraint;
+
+/**
+ * Read sheets of a workbook in parallel on an executor. Each sheet is read by a new reader of the reader factory, so 
+ * readers and their validators are never shared by threads, and rows and validation errors are kept per sheet.
+ * <p>
+ * Column configurations are resolved by sheet name on the calling thread before sheets are read. Sheets can share
+ * configurations, constraints like {@link UniqueColumnConstraint} keep values of each sheet apart.
+ *
+ * @param <T>
+ * @author lyan2
+ */
+public class WorkbookReader<T> {
+
+	private final Supplier<? extends AbstractSheetReader<T>> readerFactory;
+	private final Executor executor;
+
+	/**
+	 * Read sheets on the common fork join pool.
+	 * @param readerFactory Create a reader for each sheet, e.g. MapSheetReader::new.
+	 */
+	public WorkbookReader(Supplier<? extends AbstractSheetReader<T>> readerFactory) {
+		this(readerFactory, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param readerFactory Create a reader for each sheet, e.g. MapSheetReader::new.
+	 * @param executor Sheets are read on it.
+	 */
+	public WorkbookReader(Supplier<? extends AbstractSheetReader<T>> readerFactory, Executor executor) {
+		this.readerFactory = readerFactory;
+		this.executor = executor;
+	}
+
+	/**
+	 * Read sheets of a workbook loaded in memory. The workbook must not be changed until this method returns.
+	 * @param book
+	 * @param headers Column configurations by sheet name, sheets which get null are skipped.
+	 * @param firstRowNum The number of the first row to read of each sheet.
+	 * @return Results ordered by sheet index.
+	 */
+	public List<SheetResult<T>> readWorkbook(Workbook book, Function<String, List<ColumnConfiguration>> headers, int firstRowNum) {
+		List<CompletableFuture<SheetResult<T>>> futures = new ArrayList<CompletableFuture<SheetResult<T>>>();
+
+		try {
+			for (int i = 0; i < book.getNumberOfSheets(); i++) {
+				final Sheet sheet = book.getSheetAt(i);
+				final List<ColumnConfiguration> configs = headers.apply(sheet.getSheetName());
+				if (configs == null) continue;
+
+				final SheetResult<T> result = new SheetResult<T>(i, sheet.getSheetName());
+				futures.add(CompletableFuture.supplyAsync(() -> {
+					result.setRows(readerFactory.get().readSheet(sheet, configs, firstRowNum, result.getViolations()));
+					return result;
+				}, executor));
+			}
+		} catch (RuntimeException e) {
+			await(futures);
+			throw e;
+		}
+
+		return join(futures);
+	}
+
+	/**
+	 * Read sheets of .xlsx file, each sheet is streamed so the workbook is never loaded into memory.
+	 * @param file .xlsx file
+	 * @param headers Column configurations by sheet name, sheets which get null are skipped.
+	 * @param firstRowNum The number of the first row to read of each sheet.
+	 * @return Results ordered by sheet index.
+	 * @throws IOException
+	 */
+	public List<SheetResult<T>> readWorkbook(File file, Function<String, List<ColumnConfiguration>> headers, int firstRowNum) throws IOException {
+		OPCPackage pkg = null;
+		try {
+			pkg = OPCPackage.open(file, PackageAccess.READ);
+			return readWorkbook(pkg, headers, firstRowNum);
+		} catch (InvalidFormatException e) {
+			throw new IOException("Invalid .xlsx file " + file.getName(), e);
+		} finally {
+			if (pkg != null) {
+				// read only, close without saving
+				pkg.revert();
+			}
+		}
+	}
+
+	/**
+	 * Read sheets of opened .xlsx package, each sheet is streamed. Shared strings are loaded once for all sheets.
+	 * @param pkg .xlsx package, it's not closed by this method.
+	 * @param headers Column configurations by sheet name, sheets which get null are skipped.
+	 * @param firstRowNum The number of the first row to read of each sheet.
+	 * @return Results ordered by sheet index.
+	 * @throws IOException
+	 */
+	public List<SheetResult<T>> readWorkbook(OPCPackage pkg, Function<String, List<ColumnConfiguration>> headers, int firstRowNum) throws IOException {
+		List<CompletableFuture<SheetResult<T>>> futures = new ArrayList<CompletableFuture<SheetResult<T>>>();
+
+		try {
+			XSSFReader xssfReader = new XSSFReader(pkg);
+			final ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+			final boolean date1904 = StreamingSheetReader.isDate1904(xssfReader);
+
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+			int index = 0;
+			while (sheets.hasNext()) {
+				// each sheet opens its own stream on its thread
+				sheets.next().close();
+				final PackagePart part = sheets.getSheetPart();
+				final List<ColumnConfiguration> configs = headers.apply(sheets.getSheetName());
+				final SheetResult<T> result = new SheetResult<T>(index++, sheets.getSheetName());
+				if (configs == null) continue;
+
+				futures.add(CompletableFuture.supplyAsync(() -> {
+					readSheet(part, sharedStrings, date1904, configs, firstRowNum, result);
+					return result;
+				}, executor));
+			}
+		} catch (OpenXML4JException | SAXException e) {
+			await(futures);
+			throw new IOException("Failed to open workbook", e);
+		} catch (IOException | RuntimeException e) {
+			await(futures);
+			throw e;
+		}
+
+		try {
+			return join(futures);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void readSheet(PackagePart part, SharedStrings sharedStrings, boolean date1904, List<ColumnConfiguration> configs,
+			int firstRowNum, SheetResult<T> result) {
+		try (InputStream sheetData = part.getInputStream();
+				XSSFStreamingRowIterator rows = new XSSFStreamingRowIterator(sheetData, sharedStrings, date1904)) {
+			result.setRows(readerFactory.get().readSheet(rows, configs, firstRowNum, Integer.MAX_VALUE, result.getViolations()));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read sheet " + result.getSheetName(), e);
+		}
+	}
+
+	/**
+	 * Wait for all sheets, then return results or throw the first failure in sheet order. No sheet is still being read
+	 * when this method returns, so the workbook can be closed safely.
+	 */
+	private static <T> List<SheetResult<T>> join(List<CompletableFuture<SheetResult<T>>> futures) {
+		await(futures);
+
+		List<SheetResult<T>> results = new ArrayList<SheetResult<T>>(futures.size());
+		for (CompletableFuture<SheetResult<T>> future : futures) {
+			try {
+				results.add(future.join());
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+				if (cause instanceof Error) throw (Error) cause;
+				throw e;
+			}
+		}
+
+		return results;
+	}
+
+	private static void await(List<? extends CompletableFuture<?>> futures) {
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).handle((value, e) -> null).join();
+	}
+}
@@ -0,0 +1,343 @@
+package com.linus.excel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbookPr;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+/**
+ * Pull rows from the XML of a .xlsx sheet part with a StAX parser, so only one row is in memory at a time.
+ * <p>
+ * Each row is materialized into a scratch single-row sheet, so the returned Row and its Cells behave exactly like the
+ * ones of a XSSFWorkbook loaded in memory, and the existing readers convert them with the same semantics.
+ * Note: The returned row is only valid until next() is called.
+ *
+ * @author lyan2
+ */
+public class XSSFStreamingRowIterator implements Iterator<Row>, Closeable {
+
+	private static final XMLInputFactory factory = createInputFactory();
+
+	private final InputStream sheetData;
+	private final XMLStreamReader reader;
+	private final SharedStrings sharedStrings;
+
+	private final XSSFWorkbook scratchBook = new XSSFWorkbook();
+	private final XSSFSheet scratchSheet = scratchBook.createSheet();
+
+	/**
+	 * Shared formulas' master cells, key is shared index.
+	 */
+	private final Map<String, SharedFormulaMaster> sharedFormulas = new HashMap<String, SharedFormulaMaster>();
+
+	private XSSFRow current;
+	private XSSFRow next;
+	private int lastRowNum = -1;
+	private boolean finished = false;
+
+	/**
+	 * @param sheetData Sheet part stream, it will be closed by close().
+	 * @param sharedStrings Shared strings of the workbook.
+	 * @param date1904 Whether the workbook uses 1904 date windowing.
+	 * @throws IOException
+	 */
+	public XSSFStreamingRowIterator(InputStream sheetData, SharedStrings sharedStrings, boolean date1904) throws IOException {
+		this.sheetData = sheetData;
+		this.sharedStrings = sharedStrings;
+
+		if (date1904) {
+			CTWorkbookPr workbookPr = scratchBook.getCTWorkbook().isSetWorkbookPr()
+					? scratchBook.getCTWorkbook().getWorkbookPr() : scratchBook.getCTWorkbook().addNewWorkbookPr();
+			workbookPr.setDate1904(true);
+		}
+
+		try {
+			this.reader = factory.createXMLStreamReader(sheetData);
+		} catch (XMLStreamException e) {
+			throw new IOException("Failed to parse sheet data.", e);
+		}
+	}
+
+	/**
+	 * Read "date1904" attribute from workbook part.
+	 * @param workbookData
+	 * @return
+	 * @throws IOException
+	 */
+	public static boolean isDate1904(InputStream workbookData) throws IOException {
+		try {
+			XMLStreamReader reader = factory.createXMLStreamReader(workbookData);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+						String name = reader.getLocalName();
+						if ("workbookPr".equals(name)) {
+							String value = reader.getAttributeValue(null, "date1904");
+							return "1".equals(value) || "true".equalsIgnoreCase(value);
+						} else if ("sheets".equals(name)) {
+							// workbookPr always appears before sheets
+							return false;
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("Failed to parse workbook data.", e);
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = parseNextRow();
+			} catch (XMLStreamException e) {
+				throw new IllegalStateException("Failed to parse sheet data.", e);
+			}
+		}
+
+		return next != null;
+	}
+
+	@Override
+	public Row next() {
+		if (!hasNext()) throw new NoSuchElementException();
+
+		current = next;
+		next = null;
+		return current;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			// ignore, stream is closed below
+		}
+		sheetData.close();
+		scratchBook.close();
+	}
+
+	private XSSFRow parseNextRow() throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+				String r = reader.getAttributeValue(null, "r");
+				int rowNum = r != null ? Integer.parseInt(r) - 1 : lastRowNum + 1;
+				lastRowNum = rowNum;
+
+				return parseRow(rowNum);
+			} else if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(reader.getLocalName())) {
+				break;
+			}
+		}
+
+		finished = true;
+		return null;
+	}
+
+	private XSSFRow parseRow(int rowNum) throws XMLStreamException {
+		// only one row stays in scratch sheet
+		if (current != null) {
+			scratchSheet.removeRow(current);
+			current = null;
+		}
+
+		XSSFRow row = scratchSheet.createRow(rowNum);
+		int lastColumn = -1;
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT && "c".equals(reader.getLocalName())) {
+				String ref = reader.getAttributeValue(null, "r");
+				int column = ref != null ? new CellReference(ref).getCol() : lastColumn + 1;
+				lastColumn = column;
+
+				parseCell(row, column, reader.getAttributeValue(null, "t"));
+			} else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(reader.getLocalName())) {
+				break;
+			}
+		}
+
+		return row;
+	}
+
+	private void parseCell(XSSFRow row, int column, String type) throws XMLStreamException {
+		String value = null;
+		String formula = null;
+		String inlineText = null;
+		String sharedIndex = null;
+		String sharedRef = null;
+		boolean isFormula = false;
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("v".equals(name)) {
+					value = reader.getElementText();
+				} else if ("f".equals(name)) {
+					isFormula = true;
+					if ("shared".equals(reader.getAttributeValue(null, "t"))) {
+						sharedIndex = reader.getAttributeValue(null, "si");
+						sharedRef = reader.getAttributeValue(null, "ref");
+					}
+					formula = reader.getElementText();
+				} else if ("is".equals(name)) {
+					inlineText = readInlineString();
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(reader.getLocalName())) {
+				break;
+			}
+		}
+
+		XSSFCell cell = row.createCell(column);
+		CTCell ctCell = cell.getCTCell();
+
+		if (isFormula) {
+			ctCell.addNewF().setStringValue(resolveFormula(row.getRowNum(), column, formula, sharedIndex, sharedRef));
+		}
+
+		if ("s".equals(type)) {
+			if (value != null) {
+				String text = sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+				setInlineString(ctCell, isFormula, text);
+			}
+		} else if ("inlineStr".equals(type)) {
+			setInlineString(ctCell, isFormula, inlineText != null ? inlineText : value);
+		} else if ("str".equals(type)) {
+			ctCell.setT(STCellType.STR);
+			if (value != null) ctCell.setV(value);
+		} else if ("b".equals(type)) {
+			ctCell.setT(STCellType.B);
+			if (value != null) ctCell.setV(value);
+		} else if ("e".equals(type)) {
+			ctCell.setT(STCellType.E);
+			if (value != null) ctCell.setV(value);
+		} else if ("d".equals(type)) {
+			// ISO 8601 date text
+			setInlineString(ctCell, isFormula, value);
+		} else if (value != null) {
+			ctCell.setT(STCellType.N);
+			ctCell.setV(value);
+		}
+	}
+
+	/**
+	 * Strings are stored inline in scratch sheet, so the scratch shared string table never grows.
+	 */
+	private void setInlineString(CTCell ctCell, boolean isFormula, String text) {
+		if (text == null) return;
+
+		ctCell.setT(isFormula ? STCellType.STR : STCellType.INLINE_STR);
+		ctCell.setV(text);
+	}
+
+	/**
+	 * Concatenate text of all runs of a inline string, phonetic runs are excluded.
+	 */
+	private String readInlineString() throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		int depth = 1;
+		boolean phonetic = false;
+
+		while (reader.hasNext() && depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("rPh".equals(name)) {
+					phonetic = true;
+					depth++;
+				} else if ("t".equals(name)) {
+					String t = reader.getElementText();
+					if (!phonetic) text.append(t);
+				} else {
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				if ("rPh".equals(reader.getLocalName())) phonetic = false;
+				depth--;
+			}
+		}
+
+		return text.toString();
+	}
+
+	/**
+	 * Followers of a shared formula only have shared index, their formula is shifted from master cell's formula.
+	 */
+	private String resolveFormula(int rowNum, int column, String formula, String sharedIndex, String sharedRef) {
+		if (sharedIndex == null) return formula;
+
+		if (sharedRef != null && formula != null && !formula.isEmpty()) {
+			sharedFormulas.put(sharedIndex, new SharedFormulaMaster(formula, rowNum, column));
+			return formula;
+		}
+
+		SharedFormulaMaster master = sharedFormulas.get(sharedIndex);
+		if (master == null) return formula;
+
+		try {
+			XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create(scratchBook);
+			Ptg[] ptgs = FormulaParser.parse(master.formula, fpb, FormulaType.CELL, scratchBook.getSheetIndex(scratchSheet), rowNum);
+			SharedFormula sf = new SharedFormula(scratchBook.getSpreadsheetVersion());
+			Ptg[] shifted = sf.convertSharedFormulas(ptgs, rowNum - master.rowNum, column - master.column);
+			return FormulaRenderer.toFormulaString(fpb, shifted);
+		} catch (FormulaParseException e) {
+			// references to other sheets can't be resolved in scratch workbook
+			return master.formula;
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+	private static class SharedFormulaMaster {
+		private final String formula;
+		private final int rowNum;
+		private final int column;
+
+		private SharedFormulaMaster(String formula, int rowNum, int column) {
+			this.formula = formula;
+			this.rowNum = rowNum;
+			this.column = column;
+		}
+	}
+}
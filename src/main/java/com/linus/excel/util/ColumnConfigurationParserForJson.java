@@ -22,6 +22,7 @@ import com.linus.excel.validation.LengthColumnConstraint;
 import com.linus.excel.validation.NotNullColumnConstraint;
 import com.linus.excel.validation.RangeColumnConstraint;
 import com.linus.excel.validation.UniqueColumnConstraint;
+import com.linus.excel.validation.UniqueStoreType;
 import com.linus.locale.LocaleUtil;
 
 public class ColumnConfigurationParserForJson {
@@ -194,7 +195,9 @@ public class ColumnConfigurationParserForJson {
 		}
 		
 		if (isUnique) {
-			ColumnConstraint constraint = new UniqueColumnConstraint();
+			// optional, values are kept in a hash set by default
+			String store = fieldNode.has("uniqueStore") ? fieldNode.get("uniqueStore").asText() : null;
+			ColumnConstraint constraint = new UniqueColumnConstraint(UniqueStoreType.parse(store));
 			config.getConstraints().add(constraint);
 		}
 	}
@@ -0,0 +1,227 @@
+package com.linus.excel.util;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Get and set a bean property without reflection. Getter and setter are compiled into lambdas by LambdaMetafactory once,
+ * so each call costs about the same as calling the getter or setter directly. If a lambda can't be generated, for
+ * example the bean class is not public or it's not visible from this class loader, a MethodHandle is used instead.
+ * <p>
+ * Accessors are immutable and thread safe.
+ *
+ * @author lyan2
+ */
+public final class PropertyAccessor {
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	private final String name;
+	private final Function<Object, Object> getter;
+	private final BiConsumer<Object, Object> setter;
+
+	private PropertyAccessor(String name, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+		this.name = name;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	/**
+	 * Compile accessor of a property.
+	 * @param property
+	 * @return
+	 * @throws IllegalArgumentException If getter or setter is not accessible.
+	 */
+	public static PropertyAccessor of(PropertyDescriptor property) {
+		Method readMethod = property.getReadMethod();
+		Method writeMethod = property.getWriteMethod();
+
+		try {
+			Function<Object, Object> getter = readMethod == null ? null : compileGetter(readMethod);
+			BiConsumer<Object, Object> setter = writeMethod == null ? null : compileSetter(writeMethod);
+			return new PropertyAccessor(property.getName(), getter, setter);
+		} catch (IllegalAccessException | SecurityException e) {
+			throw new IllegalArgumentException("Property " + property.getName() + " is not accessible.", e);
+		}
+	}
+
+	/**
+	 * Compile a no-argument constructor of class.
+	 * @param clazz
+	 * @return
+	 * @throws IllegalArgumentException If class doesn't have a accessible no-argument constructor.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<T> instantiator(Class<T> clazz) {
+		try {
+			Constructor<T> declared = clazz.getDeclaredConstructor();
+			MethodHandle constructor = unreflect(declared);
+			if (isLambdaCompatible(clazz) && Modifier.isPublic(declared.getModifiers())) {
+				try {
+					CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+							MethodType.methodType(Object.class), constructor, MethodType.methodType(clazz));
+					return (Supplier<T>) site.getTarget().invoke();
+				} catch (Throwable e) {
+					// fall back to method handle
+				}
+			}
+
+			final MethodHandle handle = constructor.asType(MethodType.methodType(Object.class));
+			return new Supplier<T>() {
+				@Override
+				public T get() {
+					try {
+						return (T) handle.invokeExact();
+					} catch (RuntimeException | Error e) {
+						throw e;
+					} catch (Throwable e) {
+						throw new IllegalStateException("Failed to instantiate class " + clazz.getName(), e);
+					}
+				}
+			};
+		} catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+			throw new IllegalArgumentException("Class " + clazz.getName() + " doesn't have a accessible no-argument constructor.", e);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isReadable() {
+		return getter != null;
+	}
+
+	public boolean isWritable() {
+		return setter != null;
+	}
+
+	/**
+	 * @param bean
+	 * @return Property value.
+	 * @throws UnsupportedOperationException If property doesn't have a getter.
+	 */
+	public Object get(Object bean) {
+		if (getter == null) throw new UnsupportedOperationException("Property " + name + " is not readable.");
+
+		return getter.apply(bean);
+	}
+
+	/**
+	 * @param bean
+	 * @param value
+	 * @throws UnsupportedOperationException If property doesn't have a setter.
+	 * @throws ClassCastException If value doesn't match property type.
+	 */
+	public void set(Object bean, Object value) {
+		if (setter == null) throw new UnsupportedOperationException("Property " + name + " is not writable.");
+
+		setter.accept(bean, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> compileGetter(Method method) throws IllegalAccessException {
+		MethodHandle handle = unreflect(method);
+		if (isLambdaCompatible(method.getDeclaringClass())) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class), handle,
+						MethodType.methodType(box(method.getReturnType()), method.getDeclaringClass()));
+				return (Function<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// fall back to method handle
+			}
+		}
+
+		final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+		return new Function<Object, Object>() {
+			@Override
+			public Object apply(Object bean) {
+				try {
+					return generic.invokeExact(bean);
+				} catch (RuntimeException | Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> compileSetter(Method method) throws IllegalAccessException {
+		MethodHandle handle = unreflect(method);
+		if (isLambdaCompatible(method.getDeclaringClass())) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+						MethodType.methodType(void.class, Object.class, Object.class), handle,
+						MethodType.methodType(void.class, method.getDeclaringClass(), box(method.getParameterTypes()[0])));
+				return (BiConsumer<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// fall back to method handle
+			}
+		}
+
+		final MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return new BiConsumer<Object, Object>() {
+			@Override
+			public void accept(Object bean, Object value) {
+				try {
+					generic.invokeExact(bean, value);
+				} catch (RuntimeException | Error e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Public methods of non-public classes are made accessible first, as reflection would need.
+	 */
+	private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+		if (!isLambdaCompatible(method.getDeclaringClass())) {
+			method.setAccessible(true);
+		}
+		return lookup.unreflect(method);
+	}
+
+	private static MethodHandle unreflect(Constructor<?> constructor) throws IllegalAccessException {
+		if (!isLambdaCompatible(constructor.getDeclaringClass()) || !Modifier.isPublic(constructor.getModifiers())) {
+			constructor.setAccessible(true);
+		}
+		return lookup.unreflectConstructor(constructor);
+	}
+
+	/**
+	 * Generated lambda class is defined in this class's loader, so it can only link to public classes visible here.
+	 */
+	private static boolean isLambdaCompatible(Class<?> clazz) {
+		for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+			if (!Modifier.isPublic(c.getModifiers())) return false;
+		}
+
+		try {
+			return Class.forName(clazz.getName(), false, PropertyAccessor.class.getClassLoader()) == clazz;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	private static Class<?> box(Class<?> type) {
+		if (!type.isPrimitive()) return type;
+
+		return MethodType.methodType(type).wrap().returnType();
+	}
+}
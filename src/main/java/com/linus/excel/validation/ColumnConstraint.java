@@ -16,6 +16,22 @@ public abstract class ColumnConstraint {
 	 */
 	public abstract boolean isValid(Object value);
 	
+	/**
+	 * Get the constraint to validate a read session with, e.g. reading a sheet once. Constraints which remember values
+	 * they have validated return a copy with empty state, so configurations can be cached and shared by threads. Others
+	 * return themselves.
+	 * @return
+	 */
+	public ColumnConstraint forSession() {
+		return this;
+	}
+	
+	/**
+	 * Release state of a constraint returned by {@link #forSession()} when the session ends.
+	 */
+	public void endSession() {
+	}
+	
 	public boolean equal(Object obj1, Object obj2) {
 		if (obj1 != null && obj2 != null) {
 			return obj1.equals(obj2);
@@ -0,0 +1,146 @@
+package com.linus.excel.validation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+
+/**
+ * Spill strings to a temporary file, only the index stays in heap, about 16 bytes per value. It's for text columns of
+ * very large sheets. The file is read only when a string has the same hash code as one added before.
+ * <p>
+ * The file is created on the first string and deleted by {@link #clear()} or {@link #close()}.
+ * 
+ * @author lyan2
+ * @see StringKeyUniqueValueStore
+ */
+public class FileUniqueValueStore extends StringKeyUniqueValueStore {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final File directory;
+	private File file;
+	private RandomAccessFile out;
+	
+	/**
+	 * Length of file, bytes after it are in buffer.
+	 */
+	private long fileLength;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int bufferLength;
+	private byte[] readBuffer = new byte[256];
+	
+	/**
+	 * Create file in default temporary directory.
+	 */
+	public FileUniqueValueStore() {
+		this(null);
+	}
+	
+	/**
+	 * @param directory Directory of file, null for default temporary directory.
+	 */
+	public FileUniqueValueStore(File directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	protected long append(byte[] value, int length) {
+		long offset = fileLength + bufferLength;
+		try {
+			if (BUFFER_SIZE - bufferLength < length) {
+				flush();
+			}
+			if (length > BUFFER_SIZE) {
+				getOut().seek(fileLength);
+				getOut().write(value, 0, length);
+				fileLength += length;
+			} else {
+				System.arraycopy(value, 0, buffer, bufferLength, length);
+				bufferLength += length;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return offset;
+	}
+
+	@Override
+	protected boolean matches(long offset, byte[] value, int length) {
+		if (offset + length > fileLength + bufferLength) return false;
+		
+		if (offset >= fileLength) {
+			int start = (int) (offset - fileLength);
+			for (int i = 0; i < length; i++) {
+				if (buffer[start + i] != value[i]) return false;
+			}
+			return true;
+		}
+		
+		try {
+			// written bytes may be partly in buffer
+			flush();
+			if (readBuffer.length < length) {
+				readBuffer = new byte[Math.max(length, readBuffer.length * 2)];
+			}
+			out.seek(offset);
+			out.readFully(readBuffer, 0, length);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		for (int i = 0; i < length; i++) {
+			if (readBuffer[i] != value[i]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	protected void clearStorage() {
+		try {
+			deleteFile();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Same as {@link #clear()}: values are removed and the file is deleted, the store can still be used, a new file is
+	 * created then.
+	 */
+	@Override
+	public void close() throws IOException {
+		clear();
+	}
+	
+	private void deleteFile() throws IOException {
+		fileLength = 0;
+		bufferLength = 0;
+		if (out == null) return;
+		
+		try {
+			out.close();
+		} finally {
+			out = null;
+			file.delete();
+			file = null;
+		}
+	}
+	
+	private void flush() throws IOException {
+		if (bufferLength == 0) return;
+		
+		getOut().seek(fileLength);
+		out.write(buffer, 0, bufferLength);
+		fileLength += bufferLength;
+		bufferLength = 0;
+	}
+	
+	private RandomAccessFile getOut() throws IOException {
+		if (out == null) {
+			file = File.createTempFile("unique", ".values", directory);
+			out = new RandomAccessFile(file, "rw");
+		}
+		return out;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.linus.excel.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keep values in a hash set, works for any value. It's the default store.
+ * 
+ * @author lyan2
+ */
+public class HashUniqueValueStore implements UniqueValueStore {
+	private final Set<Object> values = new HashSet<Object>();
+
+	@Override
+	public boolean add(Object value) {
+		return values.add(value);
+	}
+
+	@Override
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public void clear() {
+		values.clear();
+	}
+
+}
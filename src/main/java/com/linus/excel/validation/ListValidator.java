@@ -1,6 +1,7 @@
 package com.linus.excel.validation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -13,7 +14,13 @@ import com.linus.excel.ColumnConfiguration;
 import com.linus.excel.InvalidRowError;
 
 /**
- * Validate data from a row of excel sheet. For each sheet reading, you need to create a new ExcelValidator object.
+ * Validate data from a row of excel sheet. Constraints are compiled into a validation plan, which is cached by identity
+ * of the configurations list and reused for rows validated with the same list. It's compiled again for another list, or
+ * when constraints of a column are added, removed or replaced.
+ * <p>
+ * A validator can be reused for many sheets, but not by multiple threads at the same time. State of constraints like
+ * unique values isn't kept by validator: readers validate with configurations of
+ * {@link ColumnConfiguration#forSession(List)}, so each read has its own.
  * 
  * @author lyan2
  */
@@ -22,41 +29,34 @@ public class ListValidator {
 	private String bundleBaseName = "ExcelValidationMessages";
 	private Locale locale;
 	private ResourceBundle bundle;
+	private ValidationPlan<List<Object>> plan;
+	
+	private static final ValidationPlan.ValueReader<List<Object>> LIST_VALUES = (list, column) -> list.get(column.getColumnIndex());
 	
 	/**
-	 * Validate excel row data.
+	 * Validate excel row data. Configurations are compiled into a validation plan on first call, changes of constraints
+	 * other than adding, removing or replacing them, e.g. a new pick list, need another configurations list.
 	 * @param rowIndex
 	 * @param map
 	 * @param configs
-	 * @return
+	 * @return Errors, an immutable empty set if row is valid.
 	 */
 	public Set<InvalidRowError<List<Object>>> validate(int rowIndex, List<Object> list, List<ColumnConfiguration> configs) {
-		Set<InvalidRowError<List<Object>>> errors = new HashSet<InvalidRowError<List<Object>>>();
+		if (configs == null || configs.isEmpty() || list == null) return Collections.emptySet();
 		
-		if (configs != null && !configs.isEmpty() && list != null) {
-			for (ColumnConfiguration config : configs) {
-				Object value = list.get(config.getColumnIndex());
-				List<ColumnConstraint> constraints = config.getConstraints();
-				for (ColumnConstraint constraint : constraints) {
-					try {
-						if (!constraint.isValid(value)) {
-							logger.warning("validation: " + constraint.getMessage());
-							String message = getBundle().getString(constraint.getMessage());
-							String invalidMessage = getBundle().getString("excel.validation.invalidcell.message");
-							invalidMessage = invalidMessage.replaceFirst("\\{row\\}", String.valueOf(rowIndex + 1));
-							invalidMessage = invalidMessage.replaceFirst("\\{title\\}", config.getTitle());
-							invalidMessage += constraint.resolveMessage(message);
-							errors.add(new InvalidRowError<List<Object>>(rowIndex, config.getColumnIndex(), value, invalidMessage));
-						}
-					} catch(ClassCastException e) {
-						logger.log(Level.WARNING, e.getMessage());
-					}
-					
-				}
-			}
+		return getPlan(configs).validate(rowIndex, list);
+	}
+	
+	/**
+	 * @return Plan compiled from configs, it's reused while configs, their constraints and bundle are the same.
+	 */
+	private ValidationPlan<List<Object>> getPlan(List<ColumnConfiguration> configs) {
+		ValidationPlan<List<Object>> plan = this.plan;
+		if (plan == null || !plan.isCompiledFrom(configs, getBundle())) {
+			plan = ValidationPlan.compile(configs, getBundle(), LIST_VALUES, true);
+			this.plan = plan;
 		}
-		
-		return errors;
+		return plan;
 	}
 	
 	/**
@@ -1,6 +1,7 @@
 package com.linus.excel.validation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -10,38 +11,45 @@ import java.util.Set;
 import com.linus.excel.ColumnConfiguration;
 import com.linus.excel.InvalidRowError;
 
+/**
+ * Validate data from a row of excel sheet as map. Like {@link ListValidator}, constraints are compiled into a validation
+ * plan cached by identity of the configurations list, and compiled again when constraints of a column are added, removed
+ * or replaced.
+ * 
+ * @author lyan2
+ */
 public class MapValidator {
 	private String bundleBaseName = "ExcelValidationMessages";
 	private ResourceBundle bundle;
+	private ValidationPlan<Map<String, Object>> plan;
+	
+	private static final ValidationPlan.ValueReader<Map<String, Object>> MAP_VALUES = (map, column) -> map.get(column.getKey());
 	
 	/**
 	 * Validate excel row data. Error message will tell us which row and which column (with column title) has error.
+	 * Configurations are compiled into a validation plan on first call, changes of constraints other than adding, removing
+	 * or replacing them, e.g. a new pick list, need another configurations list.
 	 * @param rowIndex
 	 * @param map
 	 * @param configs
-	 * @return
+	 * @return Errors, an immutable empty set if row is valid.
 	 */
 	public Set<InvalidRowError<Map<String, Object>>> validate(int rowIndex, Map<String, Object> map, List<ColumnConfiguration> configs) {
-		Set<InvalidRowError<Map<String, Object>>> errors = new HashSet<InvalidRowError<Map<String, Object>>>();
+		if (configs == null || configs.isEmpty() || map == null) return Collections.emptySet();
 		
-		if (configs != null && !configs.isEmpty() && map != null) {
-			for (ColumnConfiguration config : configs) {
-				Object value = map.get(config.getKey());
-				List<ColumnConstraint> constraints = config.getConstraints();
-				for (ColumnConstraint constraint : constraints) {
-					if (!constraint.isValid(value)) {
-						String message = getBundle().getString(constraint.getMessage());
-						String invalidMessage = getBundle().getString("excel.validation.invalidcell.message");
-						invalidMessage = invalidMessage.replaceFirst("\\{row\\}", String.valueOf(rowIndex + 1));
-						invalidMessage = invalidMessage.replaceFirst("\\{title\\}", config.getTitle());
-						invalidMessage += constraint.resolveMessage(message);
-						errors.add(new InvalidRowError<Map<String, Object>>(rowIndex, config.getColumnIndex(), value, invalidMessage));
-					}
-				}
-			}
+		return getPlan(configs).validate(rowIndex, map);
+	}
+	
+	/**
+	 * @return Plan compiled from configs, it's reused while configs, their constraints and bundle are the same.
+	 */
+	private ValidationPlan<Map<String, Object>> getPlan(List<ColumnConfiguration> configs) {
+		ValidationPlan<Map<String, Object>> plan = this.plan;
+		if (plan == null || !plan.isCompiledFrom(configs, getBundle())) {
+			plan = ValidationPlan.compile(configs, getBundle(), MAP_VALUES, false);
+			this.plan = plan;
 		}
-		
-		return errors;
+		return plan;
 	}
 	
 	/**
@@ -0,0 +1,111 @@
+package com.linus.excel.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keep numbers as primitive longs in an open addressing table, about 16 bytes per value instead of about 60 of a hash
+ * set. It's for columns of Integer, Long, Short, Byte, Double or Float.
+ * <p>
+ * Numbers of the first number type added are stored as longs, doubles and floats by their bits as equals() compares
+ * them. Values of other types, including null, are kept in a hash set, e.g. Integer 1 and Long 1 are still different.
+ * 
+ * @author lyan2
+ */
+public class NumberUniqueValueStore implements UniqueValueStore {
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private Class<?> type;
+	private long[] keys = new long[INITIAL_CAPACITY];
+	
+	/**
+	 * 0 marks an empty slot, so key 0 is flagged here.
+	 */
+	private boolean hasZero;
+	private int size;
+	private final Set<Object> others = new HashSet<Object>();
+
+	@Override
+	public boolean add(Object value) {
+		if (!isNumber(value)) return others.add(value);
+		
+		if (type == null) {
+			type = value.getClass();
+		} else if (type != value.getClass()) {
+			return others.add(value);
+		}
+		
+		return addKey(toKey((Number) value));
+	}
+
+	@Override
+	public int size() {
+		return size + (hasZero ? 1 : 0) + others.size();
+	}
+
+	@Override
+	public void clear() {
+		type = null;
+		keys = new long[INITIAL_CAPACITY];
+		hasZero = false;
+		size = 0;
+		others.clear();
+	}
+	
+	private boolean addKey(long key) {
+		if (key == 0) {
+			if (hasZero) return false;
+			return hasZero = true;
+		}
+		
+		int mask = keys.length - 1;
+		int slot = spread(key) & mask;
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) return false;
+			slot = (slot + 1) & mask;
+		}
+		
+		keys[slot] = key;
+		if (++size > keys.length * 3 / 4) {
+			resize();
+		}
+		return true;
+	}
+	
+	private void resize() {
+		long[] old = keys;
+		keys = new long[old.length * 2];
+		int mask = keys.length - 1;
+		for (long key : old) {
+			if (key == 0) continue;
+			
+			int slot = spread(key) & mask;
+			while (keys[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+		}
+	}
+	
+	private static boolean isNumber(Object value) {
+		return value instanceof Integer || value instanceof Long || value instanceof Double
+				|| value instanceof Short || value instanceof Byte || value instanceof Float;
+	}
+	
+	private static long toKey(Number value) {
+		if (value instanceof Double) return Double.doubleToLongBits(value.doubleValue());
+		if (value instanceof Float) return Float.floatToIntBits(value.floatValue());
+		return value.longValue();
+	}
+	
+	static int spread(long key) {
+		// finalizer of MurmurHash3
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.linus.excel.validation;
+
+/**
+ * Hash index of pick list entries. A part of a text can be looked up without creating a substring, so multiple values of
+ * a cell are checked without splitting it.
+ * 
+ * @author lyan2
+ */
+final class PickListIndex {
+	private final boolean ignoreCase;
+	
+	/**
+	 * Open addressing table, entries[i] and hashes[i] are null and 0 if slot i is empty.
+	 */
+	private final String[] entries;
+	private final int[] hashes;
+	
+	/**
+	 * @param pickList null entries are skipped.
+	 * @param ignoreCase Compare as {@link String#equalsIgnoreCase(String)} does.
+	 */
+	PickListIndex(String[] pickList, boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+		
+		int capacity = 4;
+		while (pickList != null && capacity < pickList.length * 2) {
+			capacity <<= 1;
+		}
+		this.entries = new String[capacity];
+		this.hashes = new int[capacity];
+		
+		if (pickList == null) return;
+		for (String entry : pickList) {
+			if (entry != null && !contains(entry, 0, entry.length())) {
+				int hash = hash(entry, 0, entry.length());
+				int slot = slot(hash);
+				entries[slot] = entry;
+				hashes[slot] = hash;
+			}
+		}
+	}
+	
+	/**
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @return Whether text[start, end) is an entry.
+	 */
+	boolean contains(String text, int start, int end) {
+		int hash = hash(text, start, end);
+		int length = end - start;
+		int mask = entries.length - 1;
+		for (int slot = hash & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+			String entry = entries[slot];
+			if (hashes[slot] == hash && entry.length() == length && text.regionMatches(ignoreCase, start, entry, 0, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * @return First empty slot of hash.
+	 */
+	private int slot(int hash) {
+		int mask = entries.length - 1;
+		int slot = hash & mask;
+		while (entries[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	private int hash(String text, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (ignoreCase) {
+				// chars equal ignoring case have the same lower case of upper case, as regionMatches compares
+				c = Character.toLowerCase(Character.toUpperCase(c));
+			}
+			hash = 31 * hash + c;
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+}
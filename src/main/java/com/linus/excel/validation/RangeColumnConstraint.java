@@ -5,7 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 /**
- * Value must be a value of a set.
+ * Value must be a value of a set. If multiple values are allowed, each comma separated value must be in the set.
  * @author lyan2
  */
 public class RangeColumnConstraint extends ColumnConstraint {
@@ -13,6 +13,12 @@ public class RangeColumnConstraint extends ColumnConstraint {
 	private String[]  pickList;
 	private Boolean mustInRange = true;
 	private boolean allowMultiple = false;
+	private boolean ignoreCase = false;
+	
+	/**
+	 * Built from pick list on first validation, and rebuilt after pick list or ignoreCase is set.
+	 */
+	private volatile PickListIndex index;
 
 	public RangeColumnConstraint() {
 		super();
@@ -26,33 +32,38 @@ public class RangeColumnConstraint extends ColumnConstraint {
 		}
 		
 		if (allowMultiple) {
-			String text = value.toString();
-			String[] values = (text).split(",");
-			boolean inRange = true;
-			for (String v : values) {
-				boolean found = false;
-				for (String entry : pickList) {
-					if (equal(entry, v)) {
-						found = true;
-						break;
-					}
-				}
-				if (!found) {
-					inRange = false;
-					break;
-				}
-			}
-			
-			return inRange;
-		} else {
-    		for (String entry : pickList) {
-    			if (equal(entry, value)) {
-    				return true;
-    			}
-    		}
+			return value != null && isEachInRange(value.toString());
 		}
 		
-		return false;
+		return value instanceof String && getIndex().contains((String) value, 0, ((String) value).length());
+	}
+	
+	/**
+	 * Check comma separated values as split(",") would get them, trailing empty values are ignored.
+	 */
+	private boolean isEachInRange(String text) {
+		PickListIndex index = getIndex();
+		int end = text.length();
+		while (end > 0 && text.charAt(end - 1) == ',') {
+			end--;
+		}
+		if (end == 0 && end < text.length()) return true;
+		
+		for (int start = 0; start <= end; ) {
+			int comma = text.indexOf(',', start);
+			if (comma < 0 || comma > end) comma = end;
+			if (!index.contains(text, start, comma)) return false;
+			start = comma + 1;
+		}
+		return true;
+	}
+	
+	private PickListIndex getIndex() {
+		PickListIndex index = this.index;
+		if (index == null) {
+			this.index = index = new PickListIndex(pickList, ignoreCase);
+		}
+		return index;
 	}
 	
 	public boolean isAllowMultiple() {
@@ -78,8 +89,24 @@ public class RangeColumnConstraint extends ColumnConstraint {
 		return pickList;
 	}
 
+	/**
+	 * @param pickList Don't change it after it's set, or set it again.
+	 */
 	public void setPickList(String[] pickList) {
 		this.pickList = pickList;
+		this.index = null;
+	}
+
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * @param ignoreCase Whether values are compared with pick list ignoring case.
+	 */
+	public void setIgnoreCase(boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+		this.index = null;
 	}
 
 	public Boolean getMustInRange() {
@@ -0,0 +1,134 @@
+package com.linus.excel.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keep strings encoded in an append-only storage, and index them by an open addressing table of offsets and hash codes,
+ * about 12 bytes per value besides the string bytes. Values other than strings, including null, are kept in a hash set.
+ * <p>
+ * A string is encoded as: length of the rest in varint, 0 and one byte per char if all chars are less than 256, or 1 and
+ * two bytes per char, so equal strings have equal bytes.
+ * 
+ * @author lyan2
+ */
+abstract class StringKeyUniqueValueStore implements UniqueValueStore {
+	private static final int INITIAL_CAPACITY = 16;
+	
+	/**
+	 * Offset of a string + 1, 0 marks an empty slot.
+	 */
+	private long[] offsets = new long[INITIAL_CAPACITY];
+	private int[] hashes = new int[INITIAL_CAPACITY];
+	private int size;
+	private final Set<Object> others = new HashSet<Object>();
+	
+	private byte[] encoded = new byte[64];
+	
+	/**
+	 * Append an encoded string to storage.
+	 * @return Offset of the string.
+	 */
+	protected abstract long append(byte[] bytes, int length);
+	
+	/**
+	 * @return Whether storage has the bytes at offset.
+	 */
+	protected abstract boolean matches(long offset, byte[] bytes, int length);
+	
+	/**
+	 * Remove all strings from storage.
+	 */
+	protected abstract void clearStorage();
+
+	@Override
+	public boolean add(Object value) {
+		if (!(value instanceof String)) return others.add(value);
+		
+		String text = (String) value;
+		int length = encode(text);
+		int hash = text.hashCode();
+		int mask = offsets.length - 1;
+		int slot = NumberUniqueValueStore.spread(hash) & mask;
+		while (offsets[slot] != 0) {
+			if (hashes[slot] == hash && matches(offsets[slot] - 1, encoded, length)) return false;
+			slot = (slot + 1) & mask;
+		}
+		
+		offsets[slot] = append(encoded, length) + 1;
+		hashes[slot] = hash;
+		if (++size > offsets.length * 3 / 4) {
+			resize();
+		}
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return size + others.size();
+	}
+
+	@Override
+	public void clear() {
+		offsets = new long[INITIAL_CAPACITY];
+		hashes = new int[INITIAL_CAPACITY];
+		size = 0;
+		others.clear();
+		clearStorage();
+	}
+	
+	private void resize() {
+		long[] oldOffsets = offsets;
+		int[] oldHashes = hashes;
+		offsets = new long[oldOffsets.length * 2];
+		hashes = new int[oldOffsets.length * 2];
+		int mask = offsets.length - 1;
+		for (int i = 0; i < oldOffsets.length; i++) {
+			if (oldOffsets[i] == 0) continue;
+			
+			int slot = NumberUniqueValueStore.spread(oldHashes[i]) & mask;
+			while (offsets[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			offsets[slot] = oldOffsets[i];
+			hashes[slot] = oldHashes[i];
+		}
+	}
+	
+	/**
+	 * Encode text into encoded buffer.
+	 * @return Number of bytes.
+	 */
+	private int encode(String text) {
+		int chars = text.length();
+		boolean wide = false;
+		for (int i = 0; i < chars && !wide; i++) {
+			wide = text.charAt(i) > 0xFF;
+		}
+		
+		int length = (wide ? chars * 2 : chars) + 1;
+		if (encoded.length < length + 5) {
+			encoded = new byte[Math.max(length + 5, encoded.length * 2)];
+		}
+		
+		int pos = 0;
+		for (int rest = length; ; rest >>>= 7) {
+			if (rest < 0x80) {
+				encoded[pos++] = (byte) rest;
+				break;
+			}
+			encoded[pos++] = (byte) (rest & 0x7F | 0x80);
+		}
+		
+		encoded[pos++] = (byte) (wide ? 1 : 0);
+		for (int i = 0; i < chars; i++) {
+			char c = text.charAt(i);
+			if (wide) {
+				encoded[pos++] = (byte) (c >>> 8);
+			}
+			encoded[pos++] = (byte) c;
+		}
+		return pos;
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.linus.excel.validation;
+
+import java.util.Arrays;
+
+/**
+ * Keep strings compactly in a byte array, a string of ASCII or Latin-1 chars takes about its length plus 13 bytes, instead
+ * of about 90 bytes plus twice its length in a hash set. It's for text columns.
+ * 
+ * @author lyan2
+ * @see StringKeyUniqueValueStore
+ */
+public class StringUniqueValueStore extends StringKeyUniqueValueStore {
+	private byte[] bytes = new byte[1024];
+	private int length;
+
+	@Override
+	protected long append(byte[] value, int valueLength) {
+		if (bytes.length - length < valueLength) {
+			long capacity = Math.max((long) bytes.length * 2, (long) length + valueLength);
+			if (capacity > Integer.MAX_VALUE - 8) {
+				if ((long) length + valueLength > Integer.MAX_VALUE - 8) {
+					throw new IllegalStateException("Too many values, use FileUniqueValueStore instead.");
+				}
+				capacity = Integer.MAX_VALUE - 8;
+			}
+			bytes = Arrays.copyOf(bytes, (int) capacity);
+		}
+		
+		System.arraycopy(value, 0, bytes, length, valueLength);
+		length += valueLength;
+		return length - valueLength;
+	}
+
+	@Override
+	protected boolean matches(long offset, byte[] value, int valueLength) {
+		if (offset + valueLength > length) return false;
+		
+		int start = (int) offset;
+		for (int i = 0; i < valueLength; i++) {
+			if (bytes[start + i] != value[i]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	protected void clearStorage() {
+		bytes = new byte[1024];
+		length = 0;
+	}
+
+}
@@ -1,35 +1,102 @@
 package com.linus.excel.validation;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
 
 /**
+ * Values of column must be unique. Values validated are remembered by a {@link UniqueValueStore}, a hash set by default,
+ * choose a more compact store for large sheets.
+ * <p>
+ * Sheet readers validate by a copy of {@link #forSession()} for each read, so the constraint itself can be cached and
+ * shared, only its own store is used if it validates values directly. The store of a copy is closed by
+ * {@link #endSession()} when the read ends.
  * 
  * @author lyan2
  */
 public class UniqueColumnConstraint extends ColumnConstraint {
-	private Map<Object, Object> existedValues = new HashMap<Object, Object>();
+	private final Supplier<? extends UniqueValueStore> storeFactory;
+	private volatile UniqueValueStore existedValues;
 
 	public UniqueColumnConstraint() {
+		this(HashUniqueValueStore::new);
+	}
+	
+	/**
+	 * @param storeType Type of store validated values are remembered in.
+	 */
+	public UniqueColumnConstraint(UniqueStoreType storeType) {
+		this(storeType::create);
+	}
+	
+	/**
+	 * @param storeFactory Create store validated values are remembered in, it's called for each session.
+	 */
+	public UniqueColumnConstraint(Supplier<? extends UniqueValueStore> storeFactory) {
 		super();
 		this.message = "excel.validation.unique.message";
+		this.storeFactory = storeFactory;
 	}
 
 	@Override
 	public boolean isValid(Object value) {
-		if (existedValues.containsKey(value)) {
-			return false;
+		return getStore().add(value);
+	}
+	
+	/**
+	 * @return A copy with an empty store.
+	 */
+	@Override
+	public UniqueColumnConstraint forSession() {
+		UniqueColumnConstraint constraint = new UniqueColumnConstraint(storeFactory);
+		constraint.message = message;
+		constraint.requried = requried;
+		constraint.type = type;
+		return constraint;
+	}
+	
+	/**
+	 * Close the store, a new one is created if values are validated again.
+	 */
+	@Override
+	public void endSession() {
+		UniqueValueStore store;
+		synchronized (this) {
+			store = existedValues;
+			existedValues = null;
 		}
+		if (store == null) return;
 		
-		existedValues.put(value, null);
-		return true;
+		try {
+			store.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 	
 	/**
 	 * Clear this constraint.
 	 */
 	public void clearAll() {
-		existedValues.clear();
+		if (existedValues != null) {
+			existedValues.clear();
+		}
+	}
+
+	/**
+	 * @return Store of this constraint, it's created on first call.
+	 */
+	public UniqueValueStore getStore() {
+		UniqueValueStore store = existedValues;
+		if (store == null) {
+			synchronized (this) {
+				store = existedValues;
+				if (store == null) {
+					existedValues = store = storeFactory.get();
+				}
+			}
+		}
+		return store;
 	}
 
 }
@@ -0,0 +1,64 @@
+package com.linus.excel.validation;
+
+/**
+ * Stores a {@link UniqueColumnConstraint} can keep values in, they detect the same duplicates.
+ * 
+ * @author lyan2
+ */
+public enum UniqueStoreType {
+	
+	/**
+	 * {@link HashUniqueValueStore}, for any column.
+	 */
+	HASH {
+		@Override
+		public UniqueValueStore create() {
+			return new HashUniqueValueStore();
+		}
+	},
+	
+	/**
+	 * {@link NumberUniqueValueStore}, for number columns.
+	 */
+	NUMBER {
+		@Override
+		public UniqueValueStore create() {
+			return new NumberUniqueValueStore();
+		}
+	},
+	
+	/**
+	 * {@link StringUniqueValueStore}, for text columns.
+	 */
+	STRING {
+		@Override
+		public UniqueValueStore create() {
+			return new StringUniqueValueStore();
+		}
+	},
+	
+	/**
+	 * {@link FileUniqueValueStore}, for text columns of very large sheets.
+	 */
+	FILE {
+		@Override
+		public UniqueValueStore create() {
+			return new FileUniqueValueStore();
+		}
+	};
+	
+	/**
+	 * @return A new empty store.
+	 */
+	public abstract UniqueValueStore create();
+	
+	/**
+	 * @param name Name of type, case insensitive.
+	 * @return HASH if name is null or empty.
+	 */
+	public static UniqueStoreType parse(String name) {
+		if (name == null || name.isEmpty()) return HASH;
+		
+		return valueOf(name.trim().toUpperCase());
+	}
+}
@@ -0,0 +1,40 @@
+package com.linus.excel.validation;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Values a {@link UniqueColumnConstraint} has seen. Values are equal as {@link Object#equals(Object)} says, null is a
+ * value too, so every store detects the same duplicates, they differ in memory used.
+ * <p>
+ * A store is closed at the end of the read session it's created for, it releases resources like temporary files.
+ * 
+ * @author lyan2
+ */
+public interface UniqueValueStore extends Closeable {
+	
+	/**
+	 * Add a value.
+	 * @param value
+	 * @return false if an equal value has been added.
+	 */
+	public boolean add(Object value);
+	
+	/**
+	 * @return Number of distinct values added.
+	 */
+	public int size();
+	
+	/**
+	 * Remove all values.
+	 */
+	public void clear();
+	
+	/**
+	 * Release the store, it removes all values by default.
+	 */
+	@Override
+	public default void close() throws IOException {
+		clear();
+	}
+}
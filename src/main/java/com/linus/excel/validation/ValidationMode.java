@@ -0,0 +1,20 @@
+package com.linus.excel.validation;
+
+/**
+ * How a sheet reader reacts to invalid rows.
+ * 
+ * @author lyan2
+ */
+public enum ValidationMode {
+	
+	/**
+	 * Stop reading at the first invalid row.
+	 */
+	FAIL_FAST,
+	
+	/**
+	 * Skip invalid rows and keep reading, so all errors of a sheet are reported by one pass. Reading stops when the error
+	 * budget is used up.
+	 */
+	COLLECT_ALL
+}
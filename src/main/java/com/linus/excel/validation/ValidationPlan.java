@@ -0,0 +1,220 @@
+package com.linus.excel.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.InvalidRowError;
+
+/**
+ * Constraints of columns compiled into flat arrays once, so validating a row doesn't walk configurations and constraint
+ * lists again. Messages are resolved from bundle on first failure of each constraint and reused, and a valid row costs
+ * no allocation.
+ * <p>
+ * Every constraint of a row is still checked, all errors are reported and stateful constraints like
+ * {@link UniqueColumnConstraint} see every value. A plan is bound to the configurations and bundle it's compiled from,
+ * and to the constraint lists of columns and their sizes, so adding or removing a constraint needs a new plan.
+ *
+ * @param <R> Row type.
+ * @author lyan2
+ */
+final class ValidationPlan<R> {
+
+	private static final Logger logger = Logger.getLogger(ValidationPlan.class.getName());
+
+	private static final String INVALID_CELL_MESSAGE = "excel.validation.invalidcell.message";
+
+	/**
+	 * Read value of a column from row.
+	 */
+	interface ValueReader<R> {
+		public Object read(R row, ColumnConfiguration column);
+	}
+
+	private final List<ColumnConfiguration> configs;
+	private final ResourceBundle bundle;
+	private final ValueReader<R> valueReader;
+
+	/**
+	 * Constraint lists of all configurations and their sizes when compiled.
+	 */
+	private final List<?>[] constraintLists;
+	private final int[] constraintCounts;
+
+	/**
+	 * Whether ClassCastException of a constraint is logged and ignored, as ListValidator does.
+	 */
+	private final boolean ignoreClassCast;
+
+	/**
+	 * Columns which have constraints, constraints of columns[i] are constraints[constraintStart[i]] till
+	 * constraints[constraintStart[i + 1] - 1].
+	 */
+	private final ColumnConfiguration[] columns;
+	private final int[] constraintStart;
+	private final ColumnConstraint[] constraints;
+
+	/**
+	 * Message of a invalid cell is messageHead[column] + row number + messageTail[column] + reason[constraint], tail is
+	 * null if message doesn't have row number.
+	 */
+	private final String[] messageHeads;
+	private final String[] messageTails;
+	private final String[] reasons;
+
+	private ValidationPlan(List<ColumnConfiguration> configs, ResourceBundle bundle, ValueReader<R> valueReader, boolean ignoreClassCast) {
+		this.configs = configs;
+		this.bundle = bundle;
+		this.valueReader = valueReader;
+		this.ignoreClassCast = ignoreClassCast;
+
+		List<ColumnConfiguration> columnList = new ArrayList<ColumnConfiguration>();
+		List<ColumnConstraint> constraintList = new ArrayList<ColumnConstraint>();
+		List<Integer> starts = new ArrayList<Integer>();
+		this.constraintLists = new List<?>[configs == null ? 0 : configs.size()];
+		this.constraintCounts = new int[constraintLists.length];
+		if (configs != null) {
+			int index = 0;
+			for (ColumnConfiguration config : configs) {
+				List<ColumnConstraint> columnConstraints = config.getConstraints();
+				constraintLists[index] = columnConstraints;
+				constraintCounts[index++] = columnConstraints == null ? 0 : columnConstraints.size();
+				if (columnConstraints == null || columnConstraints.isEmpty()) continue;
+
+				columnList.add(config);
+				starts.add(constraintList.size());
+				constraintList.addAll(columnConstraints);
+			}
+		}
+		starts.add(constraintList.size());
+
+		this.columns = columnList.toArray(new ColumnConfiguration[columnList.size()]);
+		this.constraints = constraintList.toArray(new ColumnConstraint[constraintList.size()]);
+		this.constraintStart = new int[starts.size()];
+		for (int i = 0; i < constraintStart.length; i++) {
+			constraintStart[i] = starts.get(i);
+		}
+		this.messageHeads = new String[columns.length];
+		this.messageTails = new String[columns.length];
+		this.reasons = new String[constraints.length];
+	}
+
+	/**
+	 * @param configs
+	 * @param bundle Messages are resolved from it.
+	 * @param valueReader
+	 * @param ignoreClassCast Whether ClassCastException of a constraint is logged and ignored instead of thrown.
+	 * @return
+	 */
+	static <R> ValidationPlan<R> compile(List<ColumnConfiguration> configs, ResourceBundle bundle, ValueReader<R> valueReader,
+			boolean ignoreClassCast) {
+		return new ValidationPlan<R>(configs, bundle, valueReader, ignoreClassCast);
+	}
+
+	/**
+	 * @param configs
+	 * @param bundle
+	 * @return Whether this plan is compiled from the same configurations and bundle, and constraints of columns aren't
+	 *         added, removed or replaced since.
+	 */
+	boolean isCompiledFrom(List<ColumnConfiguration> configs, ResourceBundle bundle) {
+		if (this.configs != configs || this.bundle != bundle) return false;
+		if (configs == null) return true;
+		if (configs.size() != constraintLists.length) return false;
+
+		int index = 0;
+		for (ColumnConfiguration config : configs) {
+			List<ColumnConstraint> columnConstraints = config.getConstraints();
+			if (columnConstraints != constraintLists[index]) return false;
+			if ((columnConstraints == null ? 0 : columnConstraints.size()) != constraintCounts[index++]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param rowIndex
+	 * @param row
+	 * @return Errors of row, an immutable empty set if row is valid.
+	 */
+	Set<InvalidRowError<R>> validate(int rowIndex, R row) {
+		Set<InvalidRowError<R>> errors = null;
+
+		for (int c = 0; c < columns.length; c++) {
+			ColumnConfiguration column = columns[c];
+			Object value = valueReader.read(row, column);
+
+			for (int i = constraintStart[c], end = constraintStart[c + 1]; i < end; i++) {
+				try {
+					if (!constraints[i].isValid(value)) {
+						if (errors == null) {
+							errors = new HashSet<InvalidRowError<R>>();
+						}
+						errors.add(new InvalidRowError<R>(rowIndex, column.getColumnIndex(), value, getMessage(rowIndex, c, i)));
+					}
+				} catch (ClassCastException e) {
+					if (!ignoreClassCast) throw e;
+					logger.log(Level.WARNING, e.getMessage());
+				}
+			}
+		}
+
+		return errors == null ? Collections.<InvalidRowError<R>>emptySet() : errors;
+	}
+
+	private String getMessage(int rowIndex, int column, int constraint) {
+		if (messageHeads[column] == null) {
+			resolveCellMessage(column);
+		}
+
+		String reason = reasons[constraint];
+		if (reason == null) {
+			ColumnConstraint target = constraints[constraint];
+			reason = target.resolveMessage(bundle.getString(target.getMessage()));
+			reasons[constraint] = reason;
+		}
+
+		StringBuilder message = new StringBuilder(128).append(messageHeads[column]);
+		if (messageTails[column] != null) {
+			message.append(rowIndex + 1).append(messageTails[column]);
+		}
+		return message.append(reason).toString();
+	}
+
+	/**
+	 * Split invalid cell message around {row}, and fill in column title.
+	 */
+	private void resolveCellMessage(int column) {
+		String template = bundle.getString(INVALID_CELL_MESSAGE);
+		String title = String.valueOf(columns[column].getTitle());
+
+		int row = template.indexOf("{row}");
+		if (row < 0) {
+			messageTails[column] = null;
+			messageHeads[column] = replaceFirst(template, "{title}", title);
+			return;
+		}
+
+		String head = template.substring(0, row);
+		String tail = template.substring(row + "{row}".length());
+		if (head.contains("{title}")) {
+			head = replaceFirst(head, "{title}", title);
+		} else {
+			tail = replaceFirst(tail, "{title}", title);
+		}
+		messageTails[column] = tail;
+		messageHeads[column] = head;
+	}
+
+	private static String replaceFirst(String text, String target, String replacement) {
+		int index = text.indexOf(target);
+		if (index < 0) return text;
+
+		return text.substring(0, index) + replacement + text.substring(index + target.length());
+	}
+}
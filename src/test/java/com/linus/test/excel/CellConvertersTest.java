@@ -0,0 +1,167 @@
+package com.linus.test.excel;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linus.date.DateUtil;
+import com.linus.enums.EnumResolver;
+import com.linus.enums.ICustomEnum;
+import com.linus.excel.CellConverter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.CellConverters;
+import com.linus.excel.MapSheetReader;
+import com.linus.excel.SerialDates;
+import com.linus.excel.enums.Gender;
+
+import junit.framework.Assert;
+
+public class CellConvertersTest {
+
+	private XSSFWorkbook wb;
+	private Row row;
+
+	@Before
+	public void before() {
+		wb = new XSSFWorkbook();
+		row = wb.createSheet().createRow(0);
+	}
+
+	@After
+	public void after() throws IOException {
+		wb.close();
+	}
+
+	@Test
+	public void testSameAsReadCell() {
+		Cell number = createCell(0, 12345678901d);
+		Cell decimal = createCell(1, 12.5d);
+		Cell text = createCell(2, "42");
+		Cell flag = row.createCell(3);
+		flag.setCellValue(true);
+
+		Class<?>[] types = {String.class, Integer.class, int.class, Long.class, Double.class, Float.class, Short.class,
+				Byte.class, BigDecimal.class, Boolean.class, Date.class, Object.class};
+		MapSheetReader reader = new MapSheetReader();
+		for (Class<?> type : types) {
+			CellConverter converter = CellConverters.forType(type);
+			for (Cell cell : new Cell[] {number, decimal, text, flag}) {
+				Assert.assertEquals(type + " " + cell, reader.readCell(cell, type), converter.convert(cell));
+			}
+		}
+	}
+
+	@Test
+	public void testOverriddenHooks() {
+		ColumnConfiguration config = new ColumnConfiguration();
+		config.setKey("gender");
+		config.setType(Gender.class);
+		createCell(0, "F");
+
+		Assert.assertNull(new MapSheetReader().readRow(Arrays.asList(config), row).get("gender"));
+
+		// readers customizing conversion by hooks keep them
+		MapSheetReader reader = new MapSheetReader() {
+			@Override
+			protected ICustomEnum resolveExcelEnum(String value, Class<ICustomEnum> type) {
+				return "F".equals(value) ? Gender.FEMALE : super.resolveExcelEnum(value, type);
+			}
+		};
+		Assert.assertEquals(Gender.FEMALE, reader.readRow(Arrays.asList(config), row).get("gender"));
+	}
+
+	@Test
+	public void testNumbers() {
+		Assert.assertEquals("12345678901", CellConverters.forType(String.class).convert(createCell(0, 12345678901d)));
+		Assert.assertEquals("-0", CellConverters.forType(String.class).convert(createCell(0, -0d)));
+		Assert.assertEquals(new BigInteger("12"), CellConverters.forType(BigInteger.class).convert(createCell(0, 12d)));
+		Assert.assertNull(CellConverters.forType(Integer.class).convert(null));
+		// unparsable date text
+		Assert.assertNull(CellConverters.forType(Calendar.class).convert(createCell(0, "42")));
+	}
+
+	@Test
+	public void testEnum() {
+		Assert.assertEquals(Gender.FEMALE, CellConverters.forType(Gender.class).convert(createCell(0, Gender.FEMALE.value())));
+		Assert.assertNull(CellConverters.forType(Gender.class).convert(createCell(0, "unknown")));
+		Assert.assertEquals(Gender.MALE, EnumResolver.resolve(Gender.class, "mALE"));
+		// plain enum by toString()
+		Assert.assertEquals(CellType.NUMERIC, EnumResolver.resolve(CellType.class, "numeric"));
+		Assert.assertNull(EnumResolver.resolve(Gender.class, null));
+	}
+
+	@Test
+	public void testSerialDates() {
+		double[] serials = {0, 0.5, 1, 59, 60, 60.75, 61, 43831.999994, 43831.9999999, 44284.104, 44500.1, 2958465.5, -1};
+		for (boolean date1904 : new boolean[] {false, true}) {
+			for (double serial : serials) {
+				Date expected = org.apache.poi.ss.usermodel.DateUtil.getJavaDate(serial, date1904);
+				String message = serial + " " + date1904;
+				Assert.assertEquals(message, expected, SerialDates.toDate(serial, date1904));
+				if (expected == null) {
+					Assert.assertNull(SerialDates.toLocalDateTime(serial, date1904));
+					continue;
+				}
+				Assert.assertEquals(message, DateUtil.resolveTime(expected), SerialDates.toTime(serial, date1904));
+				Assert.assertEquals(message, expected.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime(),
+						SerialDates.toLocalDateTime(serial, date1904));
+			}
+		}
+	}
+
+	@Test
+	public void testDate1904() throws IOException {
+		Assert.assertEquals(Boolean.FALSE, SerialDates.isDate1904(wb));
+		wb.getCTWorkbook().getWorkbookPr().setDate1904(true);
+		Assert.assertEquals(Boolean.TRUE, SerialDates.isDate1904(row.getCell(0, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK)));
+		try (SXSSFWorkbook streaming = new SXSSFWorkbook(wb)) {
+			Assert.assertEquals(Boolean.TRUE, SerialDates.isDate1904(streaming));
+		}
+		try (HSSFWorkbook hssf = new HSSFWorkbook()) {
+			Assert.assertEquals(Boolean.FALSE, SerialDates.isDate1904(hssf));
+		}
+	}
+
+	@Test
+	public void testJavaTime() {
+		Cell date = row.createCell(0);
+		date.setCellValue(LocalDateTime.of(2020, 1, 5, 10, 20, 30));
+		Cell text = createCell(1, "2020-01-05 10:20:30");
+
+		for (Cell cell : new Cell[] {date, text}) {
+			Assert.assertEquals(LocalDateTime.of(2020, 1, 5, 10, 20, 30), CellConverters.forType(LocalDateTime.class).convert(cell));
+			Assert.assertEquals(LocalDate.of(2020, 1, 5), CellConverters.forType(LocalDate.class).convert(cell));
+		}
+		Assert.assertEquals(LocalTime.of(10, 20, 30), CellConverters.forType(LocalTime.class).convert(date));
+		Assert.assertEquals(LocalTime.of(10, 20, 30), CellConverters.forType(LocalTime.class).convert(createCell(2, "10:20:30")));
+	}
+
+	private Cell createCell(int column, double value) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		return cell;
+	}
+
+	private Cell createCell(int column, String value) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		return cell;
+	}
+}
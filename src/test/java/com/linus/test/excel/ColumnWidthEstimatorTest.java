@@ -0,0 +1,68 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.MapSheetWriter;
+
+import junit.framework.Assert;
+
+public class ColumnWidthEstimatorTest {
+
+	@Test
+	public void testEstimatedColumnWidth() throws IOException {
+		List<ColumnConfiguration> configs = Arrays.asList(createConfig(0, "ascii", "STRING"), createConfig(1, "cjk", "STRING"),
+				createConfig(2, "number", "DOUBLE"));
+		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>();
+		for (int i = 0; i < 100; i++) {
+			Map<String, Object> map = new HashMap<String, Object>();
+			map.put("ascii", i == 99 ? "a much longer value of the last row" : "abcdef");
+			map.put("cjk", "名称名称名称");
+			map.put("number", i * 1.5);
+			list.add(map);
+		}
+
+		SXSSFWorkbook wb = AbstractSheetWriter.createStreamingWorkbook(10);
+		Sheet sheet = wb.createSheet("Detail");
+		MapSheetWriter writer = new MapSheetWriter(wb, configs);
+		writer.writeSheet(wb, sheet, list, true);
+
+		Assert.assertTrue(sheet.getColumnWidth(2) > 256 * 4);
+
+		// the last row isn't sampled
+		Sheet sampled = wb.createSheet("Sampled");
+		writer = new MapSheetWriter(wb, configs);
+		writer.setWidthSampleRows(50);
+		writer.writeSheet(wb, sampled, list, true);
+		Assert.assertTrue(sheet.getColumnWidth(0) > sampled.getColumnWidth(0) * 2);
+		// double width characters
+		Assert.assertTrue(sampled.getColumnWidth(1) > sampled.getColumnWidth(0) * 3 / 2);
+		wb.dispose();
+		wb.close();
+
+		// close to autoSizeColumn, except CJK text which it measures by fonts installed
+		XSSFWorkbook book = new XSSFWorkbook();
+		writer = new MapSheetWriter(book, configs);
+		writer.setAutoSizeColumns(true);
+		Sheet autoSized = book.createSheet("Detail");
+		writer.writeSheet(book, autoSized, list, true);
+		for (int i = 0; i < configs.size(); i += 2) {
+			double ratio = (double) sheet.getColumnWidth(i) / autoSized.getColumnWidth(i);
+			Assert.assertTrue(i + " " + ratio, ratio > 0.7 && ratio < 1.5);
+		}
+		book.close();
+	}
+}
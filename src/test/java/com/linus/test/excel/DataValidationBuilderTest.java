@@ -0,0 +1,68 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+import static com.linus.test.excel.TestConfigs.pickList;
+import static com.linus.test.excel.TestConfigs.userConfigs;
+import static com.linus.test.excel.TestConfigs.userData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFDataValidation;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.MapSheetWriter;
+
+import junit.framework.Assert;
+
+public class DataValidationBuilderTest {
+
+	@Test
+	public void testCoalescedValidations() throws IOException {
+		String[] countries = {"CN", "US", "DE"};
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>(userConfigs());
+		for (int i = 0; i < 3; i++) {
+			configs.add(pickList(createConfig(4 + i, "country" + i, "PICKLIST"), countries));
+		}
+
+		SXSSFWorkbook wb = AbstractSheetWriter.createStreamingWorkbook(50);
+		Sheet sheet = wb.createSheet("Detail");
+		new MapSheetWriter(wb, configs).writeSheet(wb, sheet, userData(100), true);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.dispose();
+		wb.close();
+
+		XSSFWorkbook result = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+		XSSFSheet detail = result.getSheet("Detail");
+		// gender, age, and one for adjacent country columns
+		Assert.assertEquals(3, detail.getDataValidations().size());
+		String countryRegion = null;
+		for (XSSFDataValidation validation : detail.getDataValidations()) {
+			if ("country0".equals(validation.getValidationConstraint().getFormula1())) {
+				countryRegion = validation.getRegions().getCellRangeAddress(0).formatAsString();
+			}
+		}
+		Assert.assertEquals("E2:G101", countryRegion);
+
+		// each pick list is stored once, labels are kept
+		Sheet options = result.getSheet("options");
+		Assert.assertEquals("gender", options.getRow(0).getCell(0).getStringCellValue());
+		Assert.assertEquals("country0", options.getRow(0).getCell(1).getStringCellValue());
+		Assert.assertEquals(2, options.getRow(0).getLastCellNum());
+		Assert.assertEquals("Female", options.getRow(2).getCell(0).getStringCellValue());
+		Assert.assertEquals("DE", options.getRow(3).getCell(1).getStringCellValue());
+		Assert.assertNull(result.getName("country1"));
+		result.close();
+	}
+}
@@ -0,0 +1,91 @@
+package com.linus.test.excel;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.linus.date.DateParser;
+import com.linus.date.DateUtil;
+
+import junit.framework.Assert;
+
+public class DateParserTest {
+
+	private static final String[] TEXTS = {"2020-01-05 10:20:30", "2020-01-05", "2020/01/05", "2020.01.05",
+			"2020-1-5", "2020/1/5", "2020.1.5 10:00", "2020-01-05T10:20:30.000Z", "2020-13-45", "2020-02-30",
+			"2020-01-05 24:00:00", "1500-01-01", "0099-01-01", "2021-03-28 02:30:00", "2021-10-31 02:30:00",
+			"2020-01-05abc", "20200105", "abc", "", "2020/01/05 10:20:30"};
+
+	private final TimeZone defaultZone = TimeZone.getDefault();
+
+	@After
+	public void after() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void testSameAsDateFormats() {
+		for (String zone : new String[] {"UTC", "Europe/Berlin", "Asia/Shanghai", "America/New_York"}) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			// date formats of this thread are created in default zone
+			Thread thread = new Thread(() -> {
+				DateParser parser = new DateParser();
+				for (String text : TEXTS) {
+					Date expected = parseByDateFormats(text);
+					Assert.assertEquals(zone + " " + text, expected, DateUtil.parseDate(text));
+					Assert.assertEquals(zone + " " + text, expected, parser.parse(text));
+				}
+			});
+			runInThread(thread);
+		}
+	}
+
+	@Test
+	public void testLearnedFormat() {
+		DateParser parser = new DateParser();
+		for (int round = 0; round < 2; round++) {
+			for (String text : new String[] {"2020/1/5", "2020/1/6", "2020-01-05 10:20:30", "2020-1-5", "2020.1.5", "2020-01-05"}) {
+				Assert.assertEquals(text, parseByDateFormats(text), parser.parse(text));
+			}
+		}
+	}
+
+	@Test
+	public void testTime() {
+		Assert.assertEquals("10:20:30", DateUtil.parseTime("10:20:30").toString());
+		Assert.assertEquals("01:02:03", DateUtil.parseTime("1:2:3").toString());
+		Assert.assertNull(DateUtil.parseTime("abc"));
+	}
+
+	private static void runInThread(Thread thread) {
+		Throwable[] failure = new Throwable[1];
+		thread.setUncaughtExceptionHandler((t, e) -> failure[0] = e);
+		thread.start();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+		if (failure[0] instanceof Error) throw (Error) failure[0];
+		if (failure[0] != null) throw new IllegalStateException(failure[0]);
+	}
+
+	/**
+	 * Date formats tried in order, as DateUtil did.
+	 */
+	private static Date parseByDateFormats(String text) {
+		for (DateFormat format : new DateFormat[] {DateUtil.getISODateTimeFormat(), DateUtil.getISODateFormat(),
+				DateUtil.getSlashDateFormat(), DateUtil.getDotDateFormat()}) {
+			try {
+				return format.parse(text);
+			} catch (ParseException e) {
+				// try next
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,83 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.MapSheetWriter;
+import com.linus.excel.SerialDates;
+
+import junit.framework.Assert;
+
+public class NativeDatesTest {
+
+	@Test
+	public void testNativeDates() throws IOException {
+		SXSSFWorkbook wb = AbstractSheetWriter.createStreamingWorkbook(50);
+		Sheet sheet = wb.createSheet("Detail");
+
+		List<ColumnConfiguration> configs = Arrays.asList(createConfig(0, "date", "DATE"),
+				createConfig(1, "datetime", "DATETIME"), createConfig(2, "time", "TIME"));
+		LocalDateTime time = LocalDateTime.of(2020, 1, 5, 10, 20, 30, 400000000);
+		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>();
+		for (Object value : new Object[] {time, SerialDates.toDate(SerialDates.toSerial(time, false), false), "2020-01-05",
+				LocalDate.of(1800, 1, 1)}) {
+			Map<String, Object> map = new HashMap<String, Object>();
+			map.put("date", value);
+			map.put("datetime", value);
+			map.put("time", value instanceof LocalDateTime ? ((LocalDateTime) value).toLocalTime() : value);
+			list.add(map);
+		}
+
+		MapSheetWriter writer = new MapSheetWriter(wb, configs);
+		writer.setNativeDates(true);
+		writer.writeSheet(wb, sheet, list, true);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.dispose();
+		wb.close();
+
+		XSSFWorkbook result = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+		XSSFSheet detail = result.getSheet("Detail");
+		for (int i = 1; i <= 2; i++) {
+			Row row = detail.getRow(i);
+			// truncated as formatted text is
+			assertDate(time.toLocalDate().atStartOfDay(), row.getCell(0));
+			assertDate(time.withNano(0), row.getCell(1));
+			Assert.assertEquals(LocalTime.of(10, 20, 30), SerialDates.toLocalTime(row.getCell(2).getNumericCellValue(), false));
+		}
+		// text and dates which can't be serials are written as before
+		Assert.assertEquals("2020-01-05", detail.getRow(3).getCell(0).getStringCellValue());
+		Assert.assertEquals("1800-01-01", detail.getRow(4).getCell(0).getStringCellValue());
+		result.close();
+	}
+
+	private void assertDate(LocalDateTime expected, Cell cell) {
+		Assert.assertEquals(CellType.NUMERIC, cell.getCellType());
+		Assert.assertTrue(DateUtil.isCellDateFormatted(cell));
+		Assert.assertEquals(expected, SerialDates.toLocalDateTime(cell.getNumericCellValue(), false));
+	}
+}
@@ -0,0 +1,60 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.userConfigs;
+import static com.linus.test.excel.TestConfigs.userData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFDataValidation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.MapSheetWriter;
+import com.linus.excel.OptionsRegistry;
+import com.linus.excel.validation.RangeColumnConstraint;
+
+import junit.framework.Assert;
+
+public class OptionsRegistryTest {
+
+	@Test
+	public void testSharedOptions() throws IOException {
+		SXSSFWorkbook wb = AbstractSheetWriter.createStreamingWorkbook();
+		for (int i = 0; i < 3; i++) {
+			Sheet sheet = wb.createSheet("Detail " + i);
+			new MapSheetWriter(wb, userConfigs()).writeSheet(wb, sheet, userData(10), true);
+		}
+
+		// same key of another list
+		List<ColumnConfiguration> configs = userConfigs();
+		((RangeColumnConstraint) configs.get(2).getConstraints().get(0)).setPickList(new String[] {"M", "F", "X"});
+		new MapSheetWriter(wb, configs).writeSheet(wb, wb.createSheet("Other"), userData(10), true);
+		Assert.assertEquals(2, OptionsRegistry.forWorkbook(wb).size());
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.dispose();
+		wb.close();
+
+		XSSFWorkbook result = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+		Assert.assertEquals("options!$A$2:$A$3", result.getName("gender").getRefersToFormula());
+		Assert.assertEquals("options!$B$2:$B$4", result.getName("gender_2").getRefersToFormula());
+		Sheet options = result.getSheet("options");
+		Assert.assertEquals(2, options.getRow(0).getLastCellNum());
+		Assert.assertEquals("X", options.getRow(3).getCell(1).getStringCellValue());
+		List<String> formulas = new ArrayList<String>();
+		for (XSSFDataValidation validation : result.getSheet("Detail 2").getDataValidations()) {
+			formulas.add(validation.getValidationConstraint().getFormula1());
+		}
+		Assert.assertTrue(formulas.contains("gender"));
+		result.close();
+	}
+}
@@ -0,0 +1,143 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+import static com.linus.test.excel.TestConfigs.integerRange;
+import static com.linus.test.excel.TestConfigs.unique;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.InvalidRowError;
+import com.linus.excel.ListSheetReader;
+import com.linus.excel.MapSheetReader;
+import com.linus.excel.PartitionedSheetReader;
+import com.linus.excel.validation.ValidationMode;
+
+import junit.framework.Assert;
+
+public class PartitionedSheetReaderTest {
+
+	private static final int ROWS = 3000;
+
+	private XSSFWorkbook wb;
+	private Sheet sheet;
+	private ForkJoinPool pool;
+
+	@Before
+	public void before() {
+		pool = new ForkJoinPool(4);
+		wb = new XSSFWorkbook();
+		sheet = wb.createSheet("Detail");
+		sheet.createRow(0).createCell(0).setCellValue("Name");
+		for (int i = 1; i <= ROWS; i++) {
+			// leave gaps to check missing rows
+			if (i % 97 == 0) continue;
+
+			Row row = sheet.createRow(i);
+			row.createCell(0).setCellValue("Name " + i);
+			row.createCell(1).setCellValue(i % 100);
+		}
+	}
+
+	@After
+	public void after() throws IOException {
+		pool.shutdownNow();
+		wb.close();
+	}
+
+	@Test
+	public void testValidSheet() {
+		assertSameAsSequential(1, ROWS);
+		assertSameAsSequential(250, 1700);
+	}
+
+	@Test
+	public void testDuplicateAcrossChunks() {
+		// duplicates a row of the first chunk
+		sheet.getRow(2345).getCell(0).setCellValue("Name 10");
+		List<Map<String, Object>> rows = assertSameAsSequential(1, ROWS);
+		Assert.assertEquals("Name 2344", rows.get(rows.size() - 1).get("name"));
+	}
+
+	@Test
+	public void testInvalidRowBeforeDuplicate() {
+		sheet.getRow(2345).getCell(0).setCellValue("Name 10");
+		sheet.getRow(1500).getCell(1).setCellValue(200);
+		List<Map<String, Object>> rows = assertSameAsSequential(1, ROWS);
+		Assert.assertEquals("Name 1499", rows.get(rows.size() - 1).get("name"));
+	}
+
+	@Test
+	public void testCollectAll() {
+		sheet.getRow(2345).getCell(0).setCellValue("Name 10");
+		sheet.getRow(1500).getCell(1).setCellValue(200);
+		sheet.getRow(2999).getCell(1).setCellValue(200);
+		Assert.assertEquals(ROWS - ROWS / 97 - 3, assertSameAsSequential(1, ROWS, ValidationMode.COLLECT_ALL, 100).size());
+
+		// error budget is used up at the duplicated row
+		List<Map<String, Object>> rows = assertSameAsSequential(1, ROWS, ValidationMode.COLLECT_ALL, 2);
+		Assert.assertEquals("Name 2344", rows.get(rows.size() - 1).get("name"));
+	}
+
+	@Test
+	public void testListReader() {
+		PartitionedSheetReader<List<Object>> reader = new PartitionedSheetReader<List<Object>>(ListSheetReader::new, pool, 128);
+		Set<InvalidRowError<List<Object>>> violations = new HashSet<InvalidRowError<List<Object>>>();
+		List<List<Object>> expected = new ListSheetReader().readSheet(sheet, getColumnConfigs(), 1, violations);
+		Assert.assertEquals(expected, reader.readSheet(sheet, getColumnConfigs(), 1, violations));
+	}
+
+	private List<Map<String, Object>> assertSameAsSequential(int firstRowNum, int lastRowNum) {
+		return assertSameAsSequential(firstRowNum, lastRowNum, ValidationMode.FAIL_FAST, MapSheetReader.DEFAULT_MAX_ERRORS);
+	}
+
+	private List<Map<String, Object>> assertSameAsSequential(int firstRowNum, int lastRowNum, ValidationMode mode, int maxErrors) {
+		Supplier<MapSheetReader> factory = () -> {
+			MapSheetReader reader = new MapSheetReader();
+			reader.setValidationMode(mode);
+			reader.setMaxErrors(maxErrors);
+			return reader;
+		};
+
+		Set<InvalidRowError<Map<String, Object>>> expectedViolations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		List<Map<String, Object>> expected = factory.get().readSheet(sheet, getColumnConfigs(), firstRowNum, lastRowNum, expectedViolations);
+
+		PartitionedSheetReader<Map<String, Object>> reader = new PartitionedSheetReader<Map<String, Object>>(factory, pool, 128);
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		List<Map<String, Object>> actual = reader.readSheet(sheet, getColumnConfigs(), firstRowNum, lastRowNum, violations);
+
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals(messages(expectedViolations), messages(violations));
+		return actual;
+	}
+
+	private static Set<String> messages(Set<InvalidRowError<Map<String, Object>>> violations) {
+		Set<String> messages = new HashSet<String>();
+		for (InvalidRowError<Map<String, Object>> error : violations) {
+			messages.add(error.getRowIndex() + ": " + error.getMessage());
+		}
+		return messages;
+	}
+
+	private List<ColumnConfiguration> getColumnConfigs() {
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		configs.add(unique(createConfig(0, "name", String.class)));
+		configs.add(integerRange(createConfig(1, "age", Integer.class), 0, 150));
+		return configs;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.linus.test.excel;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.linus.excel.po.User;
+import com.linus.excel.util.PropertyAccessor;
+
+import junit.framework.Assert;
+
+public class PropertyAccessorTest {
+
+	@Test
+	public void testPublicBean() throws IntrospectionException {
+		Supplier<User> instantiator = PropertyAccessor.instantiator(User.class);
+		User user = instantiator.get();
+
+		PropertyAccessor balance = PropertyAccessor.of(new PropertyDescriptor("balance", User.class));
+		balance.set(user, new BigDecimal("12.5"));
+		Assert.assertEquals(new BigDecimal("12.5"), balance.get(user));
+
+		// primitive property is boxed and unboxed
+		PropertyAccessor completed = PropertyAccessor.of(new PropertyDescriptor("completed", User.class));
+		completed.set(user, 0.75d);
+		Assert.assertEquals(0.75d, user.getCompleted());
+		Assert.assertEquals(Double.valueOf(0.75d), completed.get(user));
+	}
+
+	@Test
+	public void testNonPublicBean() throws IntrospectionException {
+		Item item = PropertyAccessor.instantiator(Item.class).get();
+
+		PropertyAccessor count = PropertyAccessor.of(new PropertyDescriptor("count", Item.class));
+		count.set(item, 3);
+		Assert.assertEquals(3, item.getCount());
+		Assert.assertEquals(Integer.valueOf(3), count.get(item));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testWrongValueType() throws IntrospectionException {
+		PropertyAccessor age = PropertyAccessor.of(new PropertyDescriptor("age", User.class));
+		age.set(new User(), "18");
+	}
+
+	static class Item {
+		private int count;
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+	}
+}
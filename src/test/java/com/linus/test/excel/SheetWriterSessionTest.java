@@ -0,0 +1,130 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.userConfigs;
+import static com.linus.test.excel.TestConfigs.userData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.ColumnWidthEstimator;
+import com.linus.excel.MapSheetWriter;
+import com.linus.excel.SheetWriterSession;
+
+import junit.framework.Assert;
+
+public class SheetWriterSessionTest {
+
+	@Test
+	public void testAppendSession() throws IOException {
+		SXSSFWorkbook wb = AbstractSheetWriter.createStreamingWorkbook(50);
+		Sheet sheet = wb.createSheet("Detail");
+
+		List<Map<String, Object>> data = userData(1000);
+		MapSheetWriter writer = new MapSheetWriter(wb, userConfigs());
+		try (SheetWriterSession<Map<String, Object>> session = writer.openSession(sheet, true)) {
+			for (int i = 0; i < 600; i += 200) {
+				session.append(data.subList(i, i + 200));
+			}
+			session.append(data.subList(600, 1000).stream());
+			Assert.assertEquals(1000, session.getRowCount());
+			Assert.assertEquals(1001, session.getNextRowNum());
+		}
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.dispose();
+		wb.close();
+
+		XSSFWorkbook result = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+		XSSFSheet detail = result.getSheet("Detail");
+		Assert.assertEquals("name", detail.getRow(0).getCell(0).getStringCellValue());
+		Assert.assertEquals(1000, detail.getLastRowNum());
+		Assert.assertEquals("Name 999", detail.getRow(1000).getCell(0).getStringCellValue());
+		Assert.assertEquals(2, detail.getDataValidations().size());
+		Assert.assertEquals(1, detail.getDataValidations().get(0).getRegions().getCellRangeAddress(0).getFirstRow());
+		Assert.assertTrue(detail.isColumnHidden(3));
+		result.close();
+	}
+
+	@Test
+	public void testResumeSession() throws IOException {
+		// resume a sheet which has a title, e.g. from a template
+		XSSFWorkbook book = new XSSFWorkbook();
+		Sheet template = book.createSheet("Template");
+		template.createRow(2).createCell(0).setCellValue("Name");
+		template.setColumnWidth(0, 40 * 256);
+		MapSheetWriter writer = new MapSheetWriter(book, userConfigs());
+		SheetWriterSession<Map<String, Object>> session = writer.openSession(template, true);
+		session.append(userData(10)).finish();
+		Assert.assertEquals("Name", template.getRow(2).getCell(0).getStringCellValue());
+		Assert.assertEquals(12, template.getLastRowNum());
+		Assert.assertEquals("Name 9", template.getRow(12).getCell(0).getStringCellValue());
+		Assert.assertEquals(3, session.getFirstDataRowNum());
+		Assert.assertEquals(0, writer.getFirstDataRowNum());
+		try {
+			session.append(userData(1).get(0));
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// finished
+		}
+
+		// append again, validations are extended to new rows without overlapping, widths are kept
+		writer.openSession(template, true).append(userData(5)).finish();
+		Assert.assertEquals(17, template.getLastRowNum());
+		Assert.assertEquals(40 * 256, template.getColumnWidth(0));
+		for (int column = 1; column <= 2; column++) {
+			boolean[] covered = new boolean[template.getLastRowNum() + 1];
+			for (DataValidation validation : template.getDataValidations()) {
+				for (CellRangeAddress range : validation.getRegions().getCellRangeAddresses()) {
+					if (range.getFirstColumn() > column || range.getLastColumn() < column) continue;
+					for (int i = range.getFirstRow(); i <= range.getLastRow(); i++) {
+						Assert.assertFalse(column + " " + i, covered[i]);
+						covered[i] = true;
+					}
+				}
+			}
+			for (int i = 0; i < covered.length; i++) {
+				Assert.assertEquals(column + " " + i, i >= 3, covered[i]);
+			}
+		}
+		book.close();
+	}
+
+	@Test
+	public void testSessionEstimator() throws IOException {
+		// widths of a session are estimated without the writer's estimator
+		XSSFWorkbook book = new XSSFWorkbook();
+		EstimatorWriter writer = new EstimatorWriter(book);
+		Sheet sheet = book.createSheet("Detail");
+		SheetWriterSession<Map<String, Object>> session = writer.openSession(sheet, true);
+		Assert.assertNull(writer.getEstimator());
+		session.append(userData(5));
+		Assert.assertNull(writer.getEstimator());
+		session.finish();
+		Assert.assertTrue(sheet.getColumnWidth(0) != sheet.getDefaultColumnWidth() * 256);
+		book.close();
+	}
+
+	private static class EstimatorWriter extends MapSheetWriter {
+		private EstimatorWriter(Workbook book) {
+			super(book, userConfigs());
+		}
+
+		private ColumnWidthEstimator getEstimator() {
+			return widthEstimator;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linus.excel.BatchRowHandler;
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.CountingReadInstrumentation;
+import com.linus.excel.InvalidRowError;
+import com.linus.excel.ListSheetReader;
+import com.linus.excel.MapSheetReader;
+import com.linus.excel.StreamingSheetReader;
+import com.linus.excel.validation.NotNullColumnConstraint;
+
+import junit.framework.Assert;
+
+public class StreamingSheetReaderTest {
+
+	private File file;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("streaming", ".xlsx");
+
+		Workbook wb = new XSSFWorkbook();
+		Sheet sheet = wb.createSheet("Detail");
+		CellStyle dateStyle = wb.createCellStyle();
+		dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-MM-dd"));
+
+		Row title = sheet.createRow(0);
+		title.createCell(0).setCellValue("Name");
+		title.createCell(1).setCellValue("Age");
+		title.createCell(2).setCellValue("Birthday");
+		title.createCell(3).setCellValue("Student");
+		title.createCell(4).setCellValue("Total");
+
+		Calendar birthday = Calendar.getInstance();
+		birthday.set(1990, Calendar.MARCH, 5, 0, 0, 0);
+		for (int i = 1; i <= 20; i++) {
+			// leave gaps to check missing rows
+			if (i % 7 == 0) continue;
+
+			Row row = sheet.createRow(i);
+			row.createCell(0).setCellValue("User " + (i % 3));
+			row.createCell(1).setCellValue(20 + i);
+			row.createCell(2).setCellValue(birthday);
+			row.getCell(2).setCellStyle(dateStyle);
+			if (i % 2 == 0) {
+				row.createCell(3).setCellValue(true);
+			}
+			row.createCell(4).setCellFormula("B" + (i + 1) + "*2");
+		}
+
+		FileOutputStream fos = new FileOutputStream(file);
+		wb.write(fos);
+		fos.close();
+		wb.close();
+	}
+
+	@After
+	public void after() {
+		file.delete();
+	}
+
+	@Test
+	public void testMapReader() throws IOException {
+		List<ColumnConfiguration> configs = getColumnConfigs();
+
+		Set<InvalidRowError<Map<String, Object>>> expectedViolations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		FileInputStream fis = new FileInputStream(file);
+		Workbook wb = new XSSFWorkbook(fis);
+		List<Map<String, Object>> expected = new MapSheetReader().readSheet(wb.getSheetAt(0), configs, 1, expectedViolations);
+		wb.close();
+		fis.close();
+
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		StreamingSheetReader<Map<String, Object>> reader = new StreamingSheetReader<Map<String, Object>>(new MapSheetReader());
+		List<Map<String, Object>> actual = reader.readSheet(file, 0, configs, 1, violations);
+
+		Assert.assertEquals(18, expected.size());
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals(expectedViolations.size(), violations.size());
+	}
+
+	@Test
+	public void testListReaderStopsOnInvalidRow() throws IOException {
+		List<ColumnConfiguration> configs = getColumnConfigs();
+		ColumnConfiguration student = configs.get(3);
+		student.getConstraints().add(new NotNullColumnConstraint());
+
+		Set<InvalidRowError<List<Object>>> violations = new HashSet<InvalidRowError<List<Object>>>();
+		StreamingSheetReader<List<Object>> reader = new StreamingSheetReader<List<Object>>(new ListSheetReader());
+		List<List<Object>> actual = reader.readSheet(file, 0, configs, 2, violations);
+
+		// row 3 doesn't have student cell
+		Assert.assertEquals(1, actual.size());
+		Assert.assertEquals(1, violations.size());
+		Assert.assertEquals(3, violations.iterator().next().getRowIndex());
+		Assert.assertEquals("B3*2", actual.get(0).get(4));
+	}
+
+	@Test
+	public void testBatchRowHandler() throws IOException {
+		final List<Integer> batchSizes = new ArrayList<Integer>();
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		StreamingSheetReader<Map<String, Object>> reader = new StreamingSheetReader<Map<String, Object>>(new MapSheetReader());
+		reader.readSheet(file, 0, getColumnConfigs(), 1, Integer.MAX_VALUE, new BatchRowHandler<Map<String, Object>>(5, violations) {
+			@Override
+			protected boolean handleBatch(List<Map<String, Object>> batch) {
+				batchSizes.add(batch.size());
+				return true;
+			}
+		});
+
+		// 18 rows, the last batch is flushed when sheet ends
+		Assert.assertEquals(4, batchSizes.size());
+		Assert.assertEquals(Integer.valueOf(3), batchSizes.get(3));
+		Assert.assertTrue(violations.isEmpty());
+	}
+
+	@Test
+	public void testStreamSheet() throws IOException {
+		List<ColumnConfiguration> configs = getColumnConfigs();
+		configs.get(3).getConstraints().add(new NotNullColumnConstraint());
+
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		StreamingSheetReader<Map<String, Object>> reader = new StreamingSheetReader<Map<String, Object>>(new MapSheetReader());
+		Stream<Map<String, Object>> stream = reader.streamSheet(file, 0, configs, 2, Integer.MAX_VALUE, violations);
+		try {
+			// only the first row is pulled, invalid row 3 is never validated
+			List<Map<String, Object>> preview = stream.limit(1).collect(Collectors.<Map<String, Object>>toList());
+			Assert.assertEquals(1, preview.size());
+			Assert.assertEquals("User 2", preview.get(0).get("name"));
+			Assert.assertTrue(violations.isEmpty());
+		} finally {
+			stream.close();
+		}
+
+		FileInputStream fis = new FileInputStream(file);
+		Workbook wb = new XSSFWorkbook(fis);
+		Iterator<Map<String, Object>> it = new MapSheetReader().iterateSheet(wb.getSheetAt(0), configs, 2, wb.getSheetAt(0).getLastRowNum(), violations);
+		Assert.assertTrue(it.hasNext());
+		it.next();
+		Assert.assertFalse(it.hasNext());
+		Assert.assertEquals(3, violations.iterator().next().getRowIndex());
+		wb.close();
+		fis.close();
+	}
+
+	@Test
+	public void testInstrumentation() throws IOException {
+		CountingReadInstrumentation instrumentation = new CountingReadInstrumentation();
+		MapSheetReader mapReader = new MapSheetReader();
+		mapReader.setInstrumentation(instrumentation);
+
+		StreamingSheetReader<Map<String, Object>> reader = new StreamingSheetReader<Map<String, Object>>(mapReader);
+		reader.readSheet(file, 0, getColumnConfigs(), 1, null);
+
+		Assert.assertEquals(18, instrumentation.getRows());
+		Assert.assertEquals(18 * 5, instrumentation.getCells());
+		Assert.assertEquals(0, instrumentation.getInvalidRows());
+		Assert.assertEquals(0, instrumentation.getConversionFailures());
+
+		// names can't be converted into numbers
+		List<ColumnConfiguration> configs = getColumnConfigs();
+		configs.set(0, createConfig(0, "name", Integer.class));
+		try {
+			reader.readSheet(file, 0, configs, 1, null);
+			Assert.fail();
+		} catch (NumberFormatException e) {
+			Assert.assertEquals(1, instrumentation.getConversionFailures());
+		}
+	}
+
+	private List<ColumnConfiguration> getColumnConfigs() {
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		configs.add(createConfig(0, "name", String.class));
+		configs.add(createConfig(1, "age", Integer.class));
+		configs.add(createConfig(2, "birthday", java.util.Date.class));
+		configs.add(createConfig(3, "student", Boolean.class));
+		configs.add(createConfig(4, "total", Double.class));
+		return configs;
+	}
+
+}
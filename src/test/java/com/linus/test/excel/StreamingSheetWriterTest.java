@@ -0,0 +1,54 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.userConfigs;
+import static com.linus.test.excel.TestConfigs.userData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.AbstractSheetWriter;
+import com.linus.excel.MapSheetWriter;
+
+import junit.framework.Assert;
+
+public class StreamingSheetWriterTest {
+
+	@Test
+	public void testStreamingWriter() throws IOException {
+		SXSSFWorkbook wb = AbstractSheetWriter.createStreamingWorkbook(50);
+		Sheet sheet = wb.createSheet("Detail");
+
+		MapSheetWriter writer = new MapSheetWriter(wb, userConfigs());
+		writer.writeSheet(wb, sheet, userData(1000), true);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		wb.write(bos);
+		wb.dispose();
+		wb.close();
+
+		XSSFWorkbook result = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+		XSSFSheet detail = result.getSheet("Detail");
+
+		Assert.assertEquals(1000, detail.getLastRowNum());
+		Assert.assertEquals("Name 999", detail.getRow(1000).getCell(0).getStringCellValue());
+		Assert.assertEquals(2, detail.getDataValidations().size());
+		Assert.assertTrue(detail.isColumnHidden(3));
+		Assert.assertTrue(detail.getColumnWidth(0) > 0);
+		Assert.assertEquals(512 * (10 + 2), detail.getColumnWidth(1));
+
+		// styles are interned, not created per cell
+		Assert.assertTrue(result.getNumCellStyles() < 10);
+
+		Sheet options = result.getSheet("options");
+		Assert.assertNotNull(options);
+		Assert.assertEquals("Female", options.getRow(2).getCell(0).getStringCellValue());
+		result.close();
+	}
+}
@@ -0,0 +1,182 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+import static com.linus.test.excel.TestConfigs.pickList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.MapSheetWriter;
+import com.linus.excel.TemplateCache;
+import com.linus.excel.validation.RangeColumnConstraint;
+
+import junit.framework.Assert;
+
+public class TemplateCacheTest {
+
+	@Test
+	public void testTemplateCache() throws IOException {
+		AtomicInteger builds = new AtomicInteger();
+		TemplateCache cache = new CountingCache(builds);
+
+		byte[] template = cache.getTemplate(getConfigs("Name"), Locale.US);
+		Assert.assertTrue(template.length > 0);
+
+		// configurations parsed again share the template, bytes are copies
+		template[0] = 0;
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		cache.write(getConfigs("Name"), Locale.US, bos);
+		Assert.assertEquals(1, builds.get());
+		Assert.assertFalse(Arrays.equals(template, bos.toByteArray()));
+		template[0] = bos.toByteArray()[0];
+		Assert.assertTrue(Arrays.equals(template, bos.toByteArray()));
+
+		try (XSSFWorkbook book = cache.open(getConfigs("名称"), Locale.CHINA)) {
+			Assert.assertEquals("名称", book.getSheet("Users").getRow(0).getCell(0).getStringCellValue());
+		}
+		try (XSSFWorkbook book = cache.open(getConfigs("Name"), Locale.US)) {
+			Assert.assertEquals("Name", book.getSheet("Users").getRow(0).getCell(0).getStringCellValue());
+		}
+		Assert.assertEquals(2, builds.get());
+		Assert.assertEquals(2, cache.size());
+
+		// a changed pick list is another template
+		List<ColumnConfiguration> changed = getConfigs("Name");
+		((RangeColumnConstraint) changed.get(1).getConstraints().get(0)).setPickList(new String[] {"F", "M", "X"});
+		Assert.assertFalse(cache.contains(changed, Locale.US));
+
+		cache.invalidate(getConfigs("Name"), Locale.US);
+		Assert.assertFalse(cache.contains(getConfigs("Name"), Locale.US));
+		cache.getTemplate(getConfigs("Name"), Locale.US);
+		Assert.assertEquals(3, builds.get());
+	}
+
+	@Test
+	public void testTemplateValidations() throws IOException {
+		TemplateCache cache = new TemplateCache("Users");
+		byte[] template = cache.getTemplate(getConfigs("Name"), Locale.US);
+
+		try (XSSFWorkbook book = new XSSFWorkbook(new ByteArrayInputStream(template))) {
+			XSSFSheet sheet = book.getSheet("Users");
+			Assert.assertEquals(0, sheet.getLastRowNum());
+			Assert.assertEquals(1, sheet.getDataValidations().size());
+
+			DataValidation validation = sheet.getDataValidations().get(0);
+			Assert.assertEquals("gender", validation.getValidationConstraint().getFormula1());
+			CellRangeAddress range = validation.getRegions().getCellRangeAddress(0);
+			Assert.assertEquals(1, range.getFirstColumn());
+			Assert.assertEquals(1, range.getFirstRow());
+			Assert.assertEquals(1000, range.getLastRow());
+
+			Assert.assertEquals("options!$A$2:$A$3", book.getName("gender").getRefersToFormula());
+			Assert.assertEquals("Female", book.getSheet("options").getRow(2).getCell(0).getStringCellValue());
+		}
+
+		// writers don't cover empty rows unless asked
+		try (XSSFWorkbook book = new XSSFWorkbook()) {
+			XSSFSheet sheet = book.createSheet("Users");
+			new MapSheetWriter(book, getConfigs("Name")).writeSheet(book, sheet,
+					Collections.<Map<String, Object>>emptyList(), true);
+			Assert.assertTrue(sheet.getDataValidations().isEmpty());
+		}
+	}
+
+	@Test
+	public void testConcurrentBuild() throws Exception {
+		AtomicInteger builds = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		TemplateCache cache = new CountingCache(builds) {
+			@Override
+			protected void build(XSSFWorkbook book, List<ColumnConfiguration> configs, Locale locale) {
+				if (locale == Locale.US) {
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+				}
+				super.build(book, configs, locale);
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(executor.submit(() -> cache.getTemplate(getConfigs("Name"), Locale.US)));
+			}
+			started.await();
+
+			// other templates are built while one is being built
+			cache.getTemplate(getConfigs("名称"), Locale.CHINA);
+			release.countDown();
+
+			for (Future<byte[]> future : futures) {
+				Assert.assertTrue(future.get().length > 0);
+			}
+			Assert.assertEquals(2, builds.get());
+		} finally {
+			executor.shutdown();
+		}
+
+		// a failed build isn't cached
+		TemplateCache failing = new TemplateCache() {
+			@Override
+			protected void build(XSSFWorkbook book, List<ColumnConfiguration> configs, Locale locale) {
+				throw new IllegalArgumentException("failed");
+			}
+		};
+		try {
+			failing.getTemplate(getConfigs("Name"), Locale.US);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals(0, failing.size());
+		}
+	}
+
+	private List<ColumnConfiguration> getConfigs(String title) {
+		ColumnConfiguration name = createConfig(0, "name", "STRING");
+		name.setTitle(title);
+
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		configs.add(name);
+		configs.add(pickList(createConfig(1, "gender", "PICKLIST"), "Male", "Female"));
+		return configs;
+	}
+
+	private static class CountingCache extends TemplateCache {
+		private final AtomicInteger builds;
+
+		private CountingCache(AtomicInteger builds) {
+			super("Users");
+			this.builds = builds;
+		}
+
+		@Override
+		protected void build(XSSFWorkbook book, List<ColumnConfiguration> configs, Locale locale) {
+			builds.incrementAndGet();
+			super.build(book, configs, locale);
+		}
+	}
+}
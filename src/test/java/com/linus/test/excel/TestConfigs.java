@@ -0,0 +1,110 @@
+package com.linus.test.excel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.validation.IntegerRangeColumnConstraint;
+import com.linus.excel.validation.RangeColumnConstraint;
+import com.linus.excel.validation.UniqueColumnConstraint;
+
+/**
+ * Column configurations shared by reader and writer tests.
+ */
+final class TestConfigs {
+
+	static final String[] GENDERS = {"Male", "Female"};
+
+	private TestConfigs() {
+	}
+
+	/**
+	 * @param index
+	 * @param key Key and title of column.
+	 * @param type Java type of values read.
+	 * @return Configuration of a column to read.
+	 */
+	static ColumnConfiguration createConfig(int index, String key, Class<?> type) {
+		ColumnConfiguration config = new ColumnConfiguration();
+		config.setColumnIndex(index);
+		config.setKey(key);
+		config.setTitle(key);
+		config.setType(type);
+		return config;
+	}
+
+	/**
+	 * @param index
+	 * @param key Key and title of column.
+	 * @param rawType Type of cells written, e.g. STRING, INTEGER or PICKLIST.
+	 * @return Configuration of a column to write.
+	 */
+	static ColumnConfiguration createConfig(int index, String key, String rawType) {
+		ColumnConfiguration config = new ColumnConfiguration();
+		config.setColumnIndex(index);
+		config.setKey(key);
+		config.setTitle(key);
+		config.setRawType(rawType);
+		config.setWritable(true);
+		return config;
+	}
+
+	static ColumnConfiguration unique(ColumnConfiguration config) {
+		config.getConstraints().add(new UniqueColumnConstraint());
+		return config;
+	}
+
+	static ColumnConfiguration integerRange(ColumnConfiguration config, int min, int max) {
+		IntegerRangeColumnConstraint constraint = new IntegerRangeColumnConstraint();
+		constraint.setMin(min);
+		constraint.setMax(max);
+		config.getConstraints().add(constraint);
+		return config;
+	}
+
+	static ColumnConfiguration pickList(ColumnConfiguration config, String... values) {
+		RangeColumnConstraint constraint = new RangeColumnConstraint();
+		constraint.setPickList(values);
+		config.getConstraints().add(constraint);
+		return config;
+	}
+
+	/**
+	 * @return Columns of users to write: name, age in 0-150, gender of {@link #GENDERS} and hidden id.
+	 */
+	static List<ColumnConfiguration> userConfigs() {
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+
+		ColumnConfiguration name = createConfig(0, "name", "STRING");
+		ColumnConfiguration age = integerRange(createConfig(1, "age", "INTEGER"), 0, 150);
+		age.setLength(10);
+		ColumnConfiguration gender = pickList(createConfig(2, "gender", "PICKLIST"), GENDERS);
+		ColumnConfiguration id = createConfig(3, "id", "STRING");
+		id.setDisplay(false);
+
+		configs.add(name);
+		configs.add(age);
+		configs.add(gender);
+		configs.add(id);
+		return configs;
+	}
+
+	/**
+	 * @param size
+	 * @return Rows of {@link #userConfigs()}, named "Name 0" to "Name size-1".
+	 */
+	static List<Map<String, Object>> userData(int size) {
+		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>(size);
+		for (int i = 0; i < size; i++) {
+			Map<String, Object> map = new HashMap<String, Object>();
+			map.put("name", "Name " + i);
+			map.put("age", i % 100);
+			map.put("gender", GENDERS[i % 2]);
+			map.put("id", String.valueOf(i));
+			list.add(map);
+		}
+		return list;
+	}
+}
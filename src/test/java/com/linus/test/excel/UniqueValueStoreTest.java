@@ -0,0 +1,108 @@
+package com.linus.test.excel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.linus.excel.validation.FileUniqueValueStore;
+import com.linus.excel.validation.UniqueColumnConstraint;
+import com.linus.excel.validation.UniqueStoreType;
+import com.linus.excel.validation.UniqueValueStore;
+
+import junit.framework.Assert;
+
+public class UniqueValueStoreTest {
+
+	@Test
+	public void testSameAsHashSet() {
+		List<Object> values = getValues();
+		for (UniqueStoreType type : UniqueStoreType.values()) {
+			UniqueValueStore store = type.create();
+			Set<Object> expected = new HashSet<Object>();
+			for (int round = 0; round < 2; round++) {
+				for (Object value : values) {
+					Assert.assertEquals(type + " " + value, expected.add(value), store.add(value));
+				}
+				Assert.assertEquals(type.toString(), expected.size(), store.size());
+
+				store.clear();
+				expected.clear();
+				Assert.assertEquals(0, store.size());
+			}
+		}
+	}
+
+	@Test
+	public void testFileStore() throws IOException {
+		FileUniqueValueStore store = new FileUniqueValueStore();
+		try {
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < 100000; i++) {
+				builder.append('x');
+			}
+			String large = builder.toString();
+			// larger than write buffer
+			Assert.assertTrue(store.add(large));
+			for (int i = 0; i < 50000; i++) {
+				Assert.assertTrue(store.add("value " + i));
+			}
+			Assert.assertFalse(store.add(large));
+			Assert.assertFalse(store.add("value 0"));
+			Assert.assertFalse(store.add("value 49999"));
+			Assert.assertTrue(store.add("value 50000"));
+
+			// closed store is empty and can be used again
+			store.close();
+			Assert.assertEquals(0, store.size());
+			Assert.assertTrue(store.add("value 0"));
+			Assert.assertTrue(store.add(large));
+			Assert.assertFalse(store.add("value 0"));
+			Assert.assertFalse(store.add(large));
+			Assert.assertEquals(2, store.size());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testConstraint() {
+		UniqueColumnConstraint constraint = new UniqueColumnConstraint(UniqueStoreType.parse("string"));
+		Assert.assertTrue(constraint.isValid("a"));
+		Assert.assertFalse(constraint.isValid("a"));
+		Assert.assertTrue(constraint.isValid(null));
+		Assert.assertFalse(constraint.isValid(null));
+
+		constraint.clearAll();
+		Assert.assertTrue(constraint.isValid("a"));
+	}
+
+	private List<Object> getValues() {
+		Random random = new Random(42);
+		List<Object> values = new ArrayList<Object>();
+		for (int i = 0; i < 5000; i++) {
+			int n = random.nextInt(2000) - 1000;
+			values.add(n);
+			values.add((long) n);
+			values.add(n / 4d);
+			values.add("name " + n);
+			values.add("名称 " + n);
+		}
+		values.add(null);
+		values.add(0);
+		values.add(0d);
+		values.add(-0d);
+		values.add(Double.NaN);
+		values.add(Float.NaN);
+		values.add((short) 1);
+		values.add("");
+		values.add("é");
+		values.add(null);
+		values.add(Boolean.TRUE);
+		return values;
+	}
+}
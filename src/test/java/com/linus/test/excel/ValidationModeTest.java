@@ -0,0 +1,175 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+import static com.linus.test.excel.TestConfigs.integerRange;
+import static com.linus.test.excel.TestConfigs.unique;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.InvalidRowError;
+import com.linus.excel.MapSheetReader;
+import com.linus.excel.PartitionedSheetReader;
+import com.linus.excel.validation.HashUniqueValueStore;
+import com.linus.excel.validation.UniqueColumnConstraint;
+import com.linus.excel.validation.ValidationMode;
+
+import junit.framework.Assert;
+
+public class ValidationModeTest {
+
+	private XSSFWorkbook wb;
+	private Sheet sheet;
+
+	@Before
+	public void before() {
+		wb = new XSSFWorkbook();
+		sheet = wb.createSheet("Detail");
+		sheet.createRow(0).createCell(0).setCellValue("Name");
+		for (int i = 1; i <= 100; i++) {
+			Row row = sheet.createRow(i);
+			row.createCell(0).setCellValue("Name " + i);
+			// every 10th row is invalid
+			row.createCell(1).setCellValue(i % 10 == 0 ? 200 : i);
+		}
+	}
+
+	@After
+	public void after() throws IOException {
+		wb.close();
+	}
+
+	@Test
+	public void testFailFast() {
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		List<Map<String, Object>> list = new MapSheetReader().readSheet(sheet, getColumnConfigs(), 1, violations);
+		Assert.assertEquals(9, list.size());
+		Assert.assertEquals(1, violations.size());
+	}
+
+	@Test
+	public void testCollectAll() {
+		MapSheetReader reader = new MapSheetReader();
+		reader.setValidationMode(ValidationMode.COLLECT_ALL);
+
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		List<Map<String, Object>> list = reader.readSheet(sheet, getColumnConfigs(), 1, violations);
+		Assert.assertEquals(90, list.size());
+		Assert.assertEquals(10, violations.size());
+
+		// iterator skips invalid rows too
+		violations.clear();
+		Iterator<Map<String, Object>> iterator = reader.iterateSheet(sheet, getColumnConfigs(), 1, 100, violations);
+		int count = 0;
+		while (iterator.hasNext()) {
+			Assert.assertTrue((Integer) iterator.next().get("age") <= 150);
+			count++;
+		}
+		Assert.assertEquals(90, count);
+		Assert.assertEquals(10, violations.size());
+	}
+
+	@Test
+	public void testErrorBudget() {
+		MapSheetReader reader = new MapSheetReader();
+		reader.setValidationMode(ValidationMode.COLLECT_ALL);
+		reader.setMaxErrors(3);
+
+		Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+		List<Map<String, Object>> list = reader.readSheet(sheet, getColumnConfigs(), 1, violations);
+		// stops at row 30
+		Assert.assertEquals(27, list.size());
+		Assert.assertEquals(3, violations.size());
+	}
+
+	@Test
+	public void testUniqueStatePerRead() throws Exception {
+		List<ColumnConfiguration> configs = getColumnConfigs();
+		unique(configs.get(0));
+
+		// configurations are shared by reads, values of a read don't make rows of another duplicate
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> sizes = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < 8; i++) {
+				sizes.add(executor.submit(() -> {
+					MapSheetReader reader = new MapSheetReader();
+					reader.setValidationMode(ValidationMode.COLLECT_ALL);
+					Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+					reader.readSheet(sheet, configs, 1, violations);
+					return violations.size();
+				}));
+			}
+			for (Future<Integer> size : sizes) {
+				Assert.assertEquals(10, size.get().intValue());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testUniqueStoresClosed() throws Exception {
+		AtomicInteger opened = new AtomicInteger();
+		AtomicInteger closed = new AtomicInteger();
+		List<ColumnConfiguration> configs = getColumnConfigs();
+		configs.get(0).getConstraints().add(new UniqueColumnConstraint(() -> {
+			opened.incrementAndGet();
+			return new HashUniqueValueStore() {
+				@Override
+				public void close() {
+					closed.incrementAndGet();
+				}
+			};
+		}));
+
+		MapSheetReader reader = new MapSheetReader();
+		reader.readSheet(sheet, configs, 1, new HashSet<InvalidRowError<Map<String, Object>>>());
+		Assert.assertEquals(1, closed.get());
+
+		// iterated to the end
+		Iterator<Map<String, Object>> iterator = reader.iterateSheet(sheet, configs, 1, 5, null);
+		while (iterator.hasNext()) {
+			iterator.next();
+		}
+		Assert.assertEquals(2, closed.get());
+
+		// stream closed before the end
+		try (Stream<Map<String, Object>> stream = reader.streamSheet(sheet, configs, 1, 100, null)) {
+			Assert.assertEquals(3, stream.limit(3).count());
+		}
+		Assert.assertEquals(3, closed.get());
+
+		new PartitionedSheetReader<Map<String, Object>>(MapSheetReader::new, ForkJoinPool.commonPool(), 10).readSheet(sheet, configs, 1,
+				new HashSet<InvalidRowError<Map<String, Object>>>());
+		Assert.assertEquals(4, closed.get());
+		Assert.assertEquals(opened.get(), closed.get());
+	}
+
+	private List<ColumnConfiguration> getColumnConfigs() {
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		configs.add(createConfig(0, "name", String.class));
+		configs.add(integerRange(createConfig(1, "age", Integer.class), 0, 150));
+		return configs;
+	}
+
+}
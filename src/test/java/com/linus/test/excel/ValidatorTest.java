@@ -0,0 +1,118 @@
+package com.linus.test.excel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.InvalidRowError;
+import com.linus.excel.validation.LengthColumnConstraint;
+import com.linus.excel.validation.ListValidator;
+import com.linus.excel.validation.MapValidator;
+import com.linus.excel.validation.NotNullColumnConstraint;
+import com.linus.excel.validation.RangeColumnConstraint;
+
+import junit.framework.Assert;
+
+public class ValidatorTest {
+
+	@Test
+	public void testMapValidator() {
+		MapValidator validator = new MapValidator();
+		List<ColumnConfiguration> configs = getColumnConfigs();
+
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("name", "Linus");
+		Assert.assertTrue(validator.validate(0, map, configs).isEmpty());
+
+		map.put("name", "Linus Yan");
+		Set<InvalidRowError<Map<String, Object>>> errors = validator.validate(4, map, configs);
+		Assert.assertEquals(1, errors.size());
+		Assert.assertEquals(getMessage(validator.getBundle(), 5, "name", "excel.validation.length.message", configs),
+				errors.iterator().next().getMessage());
+
+		// messages are resolved for each row
+		map.put("name", null);
+		errors = validator.validate(9, map, configs);
+		Assert.assertEquals(1, errors.size());
+		Assert.assertEquals(getMessage(validator.getBundle(), 10, "name", "excel.validation.notnull.message", configs),
+				errors.iterator().next().getMessage());
+	}
+
+	@Test
+	public void testListValidator() {
+		ListValidator validator = new ListValidator();
+		List<ColumnConfiguration> configs = getColumnConfigs();
+
+		Assert.assertTrue(validator.validate(0, Arrays.<Object>asList("Linus"), configs).isEmpty());
+
+		Set<InvalidRowError<List<Object>>> errors = validator.validate(1, Arrays.<Object>asList("Linus Yan"), configs);
+		Assert.assertEquals(1, errors.size());
+		InvalidRowError<List<Object>> error = errors.iterator().next();
+		Assert.assertEquals(0, error.getColIndex());
+		Assert.assertEquals(getMessage(validator.getBundle(), 2, "name", "excel.validation.length.message", configs),
+				error.getMessage());
+
+		// plan is compiled again when constraints are removed or added
+		configs.get(0).getConstraints().remove(1);
+		Assert.assertTrue(validator.validate(1, Arrays.<Object>asList("Linus Yan"), configs).isEmpty());
+		configs.get(0).getConstraints().add(new LengthColumnConstraint(5));
+		Assert.assertEquals(1, validator.validate(1, Arrays.<Object>asList("Linus Yan"), configs).size());
+	}
+
+	@Test
+	public void testRangeConstraint() {
+		String[] pickList = {"CN", "US", "", "de"};
+		RangeColumnConstraint constraint = new RangeColumnConstraint();
+		constraint.setPickList(pickList);
+		Assert.assertTrue(constraint.isValid("CN"));
+		Assert.assertFalse(constraint.isValid("cn"));
+		Assert.assertFalse(constraint.isValid(null));
+		Assert.assertFalse(constraint.isValid(1d));
+
+		constraint.setIgnoreCase(true);
+		Assert.assertTrue(constraint.isValid("cn"));
+		Assert.assertTrue(constraint.isValid("DE"));
+
+		// same values as split(",") gets
+		constraint.setIgnoreCase(false);
+		constraint.setAllowMultiple(true);
+		for (String text : new String[] {"CN,US", "CN,,US", "CN,US,,", ",CN", ",,", ",", "", "CN,JP", "CN,US,JP", "cn", "CN, US"}) {
+			boolean expected = true;
+			for (String value : text.split(",")) {
+				expected &= Arrays.asList(pickList).contains(value);
+			}
+			Assert.assertEquals(text, expected, constraint.isValid(text));
+		}
+	}
+
+	private String getMessage(ResourceBundle bundle, int row, String title, String reason, List<ColumnConfiguration> configs) {
+		String message = bundle.getString("excel.validation.invalidcell.message");
+		message = message.replaceFirst("\\{row\\}", String.valueOf(row)).replaceFirst("\\{title\\}", title);
+		String constraintMessage = bundle.getString(reason);
+		if (reason.equals("excel.validation.length.message")) {
+			constraintMessage = configs.get(0).getConstraints().get(1).resolveMessage(constraintMessage);
+		}
+		return message + constraintMessage;
+	}
+
+	private List<ColumnConfiguration> getColumnConfigs() {
+		ColumnConfiguration name = new ColumnConfiguration();
+		name.setColumnIndex(0);
+		name.setKey("name");
+		name.setTitle("name");
+		name.setType(String.class);
+		name.getConstraints().add(new NotNullColumnConstraint());
+		name.getConstraints().add(new LengthColumnConstraint(5));
+
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		configs.add(name);
+		return configs;
+	}
+}
@@ -0,0 +1,124 @@
+package com.linus.test.excel;
+
+import static com.linus.test.excel.TestConfigs.createConfig;
+import static com.linus.test.excel.TestConfigs.unique;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linus.excel.ColumnConfiguration;
+import com.linus.excel.InvalidRowError;
+import com.linus.excel.MapSheetReader;
+import com.linus.excel.SheetResult;
+import com.linus.excel.WorkbookReader;
+
+import junit.framework.Assert;
+
+public class WorkbookReaderTest {
+
+	private static final int SHEETS = 6;
+
+	private File file;
+	private ExecutorService executor;
+
+	@Before
+	public void before() throws IOException {
+		executor = Executors.newFixedThreadPool(3);
+		file = File.createTempFile("workbook", ".xlsx");
+
+		Workbook wb = new XSSFWorkbook();
+		for (int s = 0; s < SHEETS; s++) {
+			Sheet sheet = wb.createSheet("Sheet " + s);
+			sheet.createRow(0).createCell(0).setCellValue("Name");
+			for (int i = 1; i <= 200; i++) {
+				Row row = sheet.createRow(i);
+				// same names in every sheet, sheet 3 has a duplicated name
+				row.createCell(0).setCellValue(s == 3 && i == 150 ? "Name 1" : "Name " + i);
+				row.createCell(1).setCellValue(s * 1000 + i);
+			}
+		}
+		wb.createSheet("Skipped").createRow(0).createCell(0).setCellValue("Name");
+
+		FileOutputStream fos = new FileOutputStream(file);
+		wb.write(fos);
+		fos.close();
+		wb.close();
+	}
+
+	@After
+	public void after() {
+		executor.shutdownNow();
+		file.delete();
+	}
+
+	@Test
+	public void testReadFile() throws IOException {
+		WorkbookReader<Map<String, Object>> reader = new WorkbookReader<Map<String, Object>>(MapSheetReader::new, executor);
+		List<SheetResult<Map<String, Object>>> results = reader.readWorkbook(file, name -> name.startsWith("Sheet") ? getColumnConfigs() : null, 1);
+		assertResults(results);
+	}
+
+	@Test
+	public void testReadWorkbook() throws Exception {
+		WorkbookReader<Map<String, Object>> reader = new WorkbookReader<Map<String, Object>>(MapSheetReader::new, executor);
+		XSSFWorkbook wb = new XSSFWorkbook(file);
+		try {
+			List<SheetResult<Map<String, Object>>> results = reader.readWorkbook(wb, name -> name.startsWith("Sheet") ? getColumnConfigs() : null, 1);
+			assertResults(results);
+
+			// same as reading sheets one by one
+			for (SheetResult<Map<String, Object>> result : results) {
+				Set<InvalidRowError<Map<String, Object>>> violations = new HashSet<InvalidRowError<Map<String, Object>>>();
+				List<Map<String, Object>> expected = new MapSheetReader().readSheet(wb.getSheetAt(result.getSheetIndex()), getColumnConfigs(), 1, violations);
+				Assert.assertEquals(expected, result.getRows());
+				Assert.assertEquals(violations.size(), result.getViolations().size());
+			}
+		} finally {
+			wb.close();
+		}
+	}
+
+	private void assertResults(List<SheetResult<Map<String, Object>>> results) {
+		Assert.assertEquals(SHEETS, results.size());
+		for (int s = 0; s < SHEETS; s++) {
+			SheetResult<Map<String, Object>> result = results.get(s);
+			Assert.assertEquals(s, result.getSheetIndex());
+			Assert.assertEquals("Sheet " + s, result.getSheetName());
+
+			if (s == 3) {
+				// stops at the duplicated row
+				Assert.assertFalse(result.isValid());
+				Assert.assertEquals(150, result.getViolations().iterator().next().getRowIndex());
+				Assert.assertEquals(149, result.getRows().size());
+			} else {
+				Assert.assertTrue(result.isValid());
+				Assert.assertEquals(200, result.getRows().size());
+				Assert.assertEquals(s * 1000 + 200, result.getRows().get(199).get("id"));
+			}
+		}
+	}
+
+	private List<ColumnConfiguration> getColumnConfigs() {
+		List<ColumnConfiguration> configs = new ArrayList<ColumnConfiguration>();
+		configs.add(unique(createConfig(0, "name", String.class)));
+		configs.add(createConfig(1, "id", Integer.class));
+		return configs;
+	}
+
+}